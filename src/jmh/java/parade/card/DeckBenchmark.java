@@ -0,0 +1,32 @@
+package parade.card;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Measures shuffling a new deck, and drawing cards from it the way games deal them. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class DeckBenchmark {
+    // One hand, the opening parade, and the hands of six players
+    @Param({"5", "6", "30"})
+    public int cards;
+
+    private long seed;
+
+    @Benchmark
+    public Deck construct() {
+        return new Deck(new Random(seed++));
+    }
+
+    @Benchmark
+    public List<Card> constructAndPop() {
+        return new Deck(new Random(seed++)).pop(cards);
+    }
+}
@@ -0,0 +1,46 @@
+package parade.card;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures placing a card into parades of different lengths. Every placement works on a copy of
+ * the parade so that its length stays the same, {@link #copyParade()} measures the copy alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ParadeBenchmark {
+    // Cycling through several cards places cards of every number, a power of two to wrap cheaply
+    private static final int CARDS = 16;
+
+    @Param({"6", "10", "15", "20"})
+    public int paradeLength;
+
+    private Parade parade;
+    private Card[] cards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Deck deck = new Deck(new Random(42));
+        parade = Parade.restore(deck.pop(paradeLength));
+        cards = deck.pop(CARDS).toArray(Card[]::new);
+    }
+
+    @Benchmark
+    public List<Card> placeCard() {
+        return new Parade(parade).placeCard(cards[next++ & (CARDS - 1)]);
+    }
+
+    @Benchmark
+    public Parade copyParade() {
+        return new Parade(parade);
+    }
+}
@@ -0,0 +1,76 @@
+package parade.computer;
+
+import org.openjdk.jmh.annotations.*;
+
+import parade.card.Card;
+import parade.card.Deck;
+import parade.card.Parade;
+import parade.player.Player;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.PlayCardData;
+import parade.player.controller.SnapshotController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hard engine deciding on a card to play and to discard, in positions reached by
+ * playing random cards from a seeded deal. The later the position, the longer the parade and the
+ * fuller the boards the engine has to evaluate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class HardComputerEngineBenchmark {
+    private static final int PLAYERS = 3;
+
+    @Param({"1", "2", "3"})
+    public long seed;
+
+    @Param({"0", "12", "24"})
+    public int turnsPlayed;
+
+    private final HardComputerEngine engine = new HardComputerEngine();
+    private Player player;
+    private PlayCardData position;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(seed);
+        Deck deck = new Deck(random);
+        Parade parade = new Parade(deck.pop(6));
+        List<AbstractPlayerController> controllers = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            SnapshotController controller = new SnapshotController(new Player("Player " + i));
+            controller.draw(deck.pop(5).toArray(Card[]::new));
+            controllers.add(controller);
+        }
+
+        for (int turn = 0; turn < turnsPlayed; turn++) {
+            AbstractPlayerController controller = controllers.get(turn % PLAYERS);
+            List<Card> hand = controller.getPlayer().getHand();
+            Card card = hand.get(random.nextInt(hand.size()));
+            controller.getPlayer().removeFromHand(card);
+            controller.receiveFromParade(parade.placeCard(card).toArray(Card[]::new));
+            controller.draw(deck.pop());
+        }
+
+        player = controllers.get(turnsPlayed % PLAYERS).getPlayer();
+        position = new PlayCardData(controllers, parade, deck.size());
+    }
+
+    @Benchmark
+    public Card process() {
+        return engine.process(player, position);
+    }
+
+    @Benchmark
+    public Card discardCard() {
+        return engine.discardCard(player, position);
+    }
+}
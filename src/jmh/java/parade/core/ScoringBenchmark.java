@@ -0,0 +1,64 @@
+package parade.core;
+
+import org.openjdk.jmh.annotations.*;
+
+import parade.card.Card;
+import parade.card.Colour;
+import parade.computer.ComputerEngine;
+import parade.computer.EasyComputerEngine;
+import parade.player.controller.AbstractPlayerController;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scoring the boards of a finished game, for every number of players. The boards come from
+ * a simulated game whose deck and engines are all seeded, so every run scores the same boards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ScoringBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"2", "3", "4", "5", "6"})
+    public int players;
+
+    private SimulatedGameEngine game;
+    private Map<AbstractPlayerController, List<Card>> boards;
+    private AbstractPlayerController target;
+
+    @Setup
+    public void setUp() {
+        List<ComputerEngine> engines = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            engines.add(new EasyComputerEngine(new Random(SEED + i)));
+        }
+        game = new SimulatedGameEngine(SEED, engines);
+        game.start();
+
+        boards = new HashMap<>();
+        for (AbstractPlayerController controller :
+                game.playerControllerManager.getPlayerControllers()) {
+            boards.put(controller, controller.getPlayer().getBoard());
+        }
+        target = game.playerControllerManager.getPlayerControllers().get(0);
+    }
+
+    @Benchmark
+    public Map<AbstractPlayerController, Integer> tabulateScores() {
+        return game.tabulateScores();
+    }
+
+    @Benchmark
+    public Map<AbstractPlayerController, List<Colour>> decideMajority() {
+        return Scoring.decideMajority(boards, target);
+    }
+}
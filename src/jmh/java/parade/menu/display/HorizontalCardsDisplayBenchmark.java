@@ -0,0 +1,42 @@
+package parade.menu.display;
+
+import org.openjdk.jmh.annotations.*;
+
+import parade.card.Card;
+import parade.card.Deck;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.NopLogger;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering a row of cards, including the writes to the terminal. The benchmark runs with
+ * a terminal that discards its output, so the writes cost no more than the printing code itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dparade.terminal=null")
+@State(Scope.Thread)
+public class HorizontalCardsDisplayBenchmark {
+    @Param({"0", "5", "12"})
+    public int cards;
+
+    private HorizontalCardsDisplay display;
+
+    @Setup
+    public void setUp() {
+        // The printers log through the provider as soon as they are loaded
+        LoggerProvider.setInstance(new NopLogger());
+        List<Card> row = new Deck(new Random(42)).pop(Math.max(cards, 1)).subList(0, cards);
+        display = new HorizontalCardsDisplay(row, true);
+    }
+
+    @Benchmark
+    public void display() {
+        display.display();
+    }
+}
@@ -0,0 +1,51 @@
+package parade.menu.menu;
+
+import org.openjdk.jmh.annotations.*;
+
+import parade.card.Card;
+import parade.card.Deck;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.NopLogger;
+import parade.player.Player;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering the card boxes of the player turn menu, a single card on its own and a whole
+ * box of cards including the writes to a terminal that discards its output. The prompt of the menu
+ * is left out, it waits for input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dparade.terminal=null")
+@State(Scope.Thread)
+public class BasicPlayerTurnMenuBenchmark {
+    // A hand, a parade, and a late game scoring board
+    @Param({"5", "12", "30"})
+    public int cards;
+
+    private BasicPlayerTurnMenu menu;
+    private List<Card> cardList;
+
+    @Setup
+    public void setUp() {
+        // The printers log through the provider as soon as they are loaded
+        LoggerProvider.setInstance(new NopLogger());
+        cardList = new Deck(new Random(42)).pop(cards);
+        menu = new BasicPlayerTurnMenu(new Player("Player"), null, false);
+    }
+
+    @Benchmark
+    public String[] rendersSingleCard() {
+        return menu.rendersSingleCard(cardList.get(0));
+    }
+
+    @Benchmark
+    public void renderCardList() {
+        menu.renderCardList(" Cards in your hand ", cardList);
+    }
+}
@@ -2,12 +2,26 @@ package parade;
 
 import parade.core.GameEngine;
 import parade.logger.LoggerProvider;
+import parade.metrics.AllocationTracker;
+import parade.metrics.jmx.ParadeManagement;
+import parade.metrics.trace.TraceRecorder;
+import parade.setting.Setting;
+import parade.setting.SettingKey;
 
 import java.io.IOException;
 
 public class Game {
     public static void main(String[] args) throws IOException {
         LoggerProvider.setupLogger();
+        if (Setting.get().getBoolean(SettingKey.METRICS_JMX)) {
+            ParadeManagement.register();
+        }
+        AllocationTracker.setEnabled(Setting.get().getBoolean(SettingKey.METRICS_ALLOCATIONS));
+        String trace = Setting.get().get(SettingKey.METRICS_TRACE);
+        if (trace != null && !trace.isBlank()) {
+            TraceRecorder.enable(Setting.get().getInt(SettingKey.METRICS_TRACE_BUFFER_SIZE, 16384));
+        }
+        // Closing the logger also drains the records still buffered by asynchronous loggers
         Runtime.getRuntime()
                 .addShutdownHook(new Thread(() -> LoggerProvider.getInstance().close()));
         try {
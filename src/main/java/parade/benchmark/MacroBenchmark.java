@@ -0,0 +1,316 @@
+package parade.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import parade.computer.ComputerEngine;
+import parade.computer.EasyComputerEngine;
+import parade.computer.HardComputerEngine;
+import parade.computer.SearchTelemetry;
+import parade.computer.WeightedComputerEngine;
+import parade.core.SimulatedGameEngine;
+import parade.core.SimulationResult;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.NopLogger;
+import parade.metrics.Histogram;
+import parade.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.LongFunction;
+
+/**
+ * The MacroBenchmark class measures how fast whole games are played, by playing a fixed corpus of
+ * seeded all-computer games for several player counts and engine mixes, and reports the results as
+ * JSON.
+ *
+ * <p>Every scenario, a player count with an engine mix, plays the same seeds on every run, so runs
+ * on different commits play the same deals. The games of a scenario are played one after the other
+ * on a single thread, once to warm up and then once more measured. Besides games and turns per
+ * second, a scenario reports the percentiles of the time computers take to decide on a card, how
+ * much and how fast each engine searched, the time the garbage collectors spent, and the peak heap
+ * usage.
+ *
+ * <p>The sum of all scores of a scenario is reported as its checksum. Runs whose checksums differ
+ * did not play the same games, usually because an engine changed its decisions, and their
+ * timings are not comparable.
+ *
+ * <p>Usage: {@code java -cp parade-game.jar parade.benchmark.MacroBenchmark [--games 200]
+ * [--players 2,4,6] [--mixes easy,hard,weighted,mixed] [--warmup 1] [--seed 0] [--output
+ * results.json]}
+ */
+public class MacroBenchmark {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final int MAX_PLAYERS = 6;
+
+    // The engines of each mix, created from a seed so that random engines replay the same games,
+    // the seats cycle through them
+    private static final Map<String, List<LongFunction<ComputerEngine>>> MIXES =
+            new LinkedHashMap<>();
+
+    static {
+        LongFunction<ComputerEngine> easy = seed -> new EasyComputerEngine(new Random(seed));
+        LongFunction<ComputerEngine> hard = seed -> new HardComputerEngine();
+        LongFunction<ComputerEngine> weighted = seed -> new WeightedComputerEngine();
+        MIXES.put("easy", List.of(easy));
+        MIXES.put("hard", List.of(hard));
+        MIXES.put("weighted", List.of(weighted));
+        MIXES.put("mixed", List.of(hard, weighted, easy));
+    }
+
+    private final int games;
+    private final List<Integer> playerCounts;
+    private final List<String> mixes;
+    private final int warmupRounds;
+    private final long firstSeed;
+
+    /**
+     * Constructs a benchmark of the given scenarios.
+     *
+     * @param games The number of games per scenario.
+     * @param playerCounts The player counts to play with every mix.
+     * @param mixes The names of the engine mixes.
+     * @param warmupRounds The number of times the games of a scenario are played before measuring.
+     * @param firstSeed The seed of the first game of every scenario.
+     * @throws IllegalArgumentException if a mix is unknown or the number of games is not positive.
+     */
+    public MacroBenchmark(
+            int games,
+            List<Integer> playerCounts,
+            List<String> mixes,
+            int warmupRounds,
+            long firstSeed) {
+        if (games <= 0) {
+            throw new IllegalArgumentException("Games must be positive: " + games);
+        }
+        for (String mix : mixes) {
+            if (!MIXES.containsKey(mix)) {
+                throw new IllegalArgumentException(
+                        "Unknown engine mix: " + mix + ", expected one of " + MIXES.keySet());
+            }
+        }
+        this.games = games;
+        this.playerCounts = List.copyOf(playerCounts);
+        this.mixes = List.copyOf(mixes);
+        this.warmupRounds = warmupRounds;
+        this.firstSeed = firstSeed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 200;
+        List<Integer> playerCounts = List.of(2, 4, 6);
+        List<String> mixes = List.copyOf(MIXES.keySet());
+        int warmupRounds = 1;
+        long seed = 0;
+        Path output = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[i + 1]);
+                case "--players" ->
+                        playerCounts =
+                                Arrays.stream(args[i + 1].split(","))
+                                        .map(Integer::valueOf)
+                                        .toList();
+                case "--mixes" -> mixes = Arrays.asList(args[i + 1].split(","));
+                case "--warmup" -> warmupRounds = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--output" -> output = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        LoggerProvider.setInstance(new NopLogger());
+
+        Report report = new MacroBenchmark(games, playerCounts, mixes, warmupRounds, seed).run();
+        String json = GSON.toJson(report);
+        if (output == null) {
+            System.out.println(json);
+        } else {
+            Files.writeString(output, json);
+            System.err.printf("Results written to %s%n", output);
+        }
+    }
+
+    /**
+     * Plays every scenario, warming each one up before measuring it.
+     *
+     * @return The results of all scenarios.
+     */
+    public Report run() {
+        List<ScenarioResult> results = new ArrayList<>();
+        for (String mix : mixes) {
+            for (int players : playerCounts) {
+                for (int i = 0; i < warmupRounds; i++) {
+                    playCorpus(mix, players);
+                }
+                results.add(measure(mix, players));
+            }
+        }
+        return new Report(
+                Runtime.version().toString(),
+                System.getProperty("java.vm.name"),
+                Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().maxMemory(),
+                games,
+                firstSeed,
+                results);
+    }
+
+    private ScenarioResult measure(String mix, int players) {
+        Histogram decisionTime = MetricsRegistry.get().histogram("computer.process");
+        MetricsRegistry.get().reset();
+        SearchTelemetry.reset();
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+
+        long start = System.nanoTime();
+        long[] totals = playCorpus(mix, players);
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        return new ScenarioResult(
+                mix + "-" + players,
+                engineNames(mix, players),
+                games,
+                totals[0],
+                seconds,
+                games / seconds,
+                totals[0] / seconds,
+                decisionTime.snapshot(),
+                SearchTelemetry.summaries(),
+                gcCount() - gcCount,
+                gcMillis() - gcMillis,
+                peakHeap,
+                totals[1]);
+    }
+
+    /**
+     * Plays the games of a scenario.
+     *
+     * @return The number of turns played and the sum of all scores.
+     */
+    private long[] playCorpus(String mix, int players) {
+        long turns = 0;
+        long scoreSum = 0;
+        for (int i = 0; i < games; i++) {
+            long seed = firstSeed + i;
+            SimulatedGameEngine game = new SimulatedGameEngine(seed, engines(mix, players, seed));
+            game.start();
+            SimulationResult result = game.getResult();
+            turns += result.turns();
+            for (int score : result.scores()) {
+                scoreSum += score;
+            }
+        }
+        return new long[] {turns, scoreSum};
+    }
+
+    private static List<ComputerEngine> engines(String mix, int players, long seed) {
+        List<LongFunction<ComputerEngine>> factories = MIXES.get(mix);
+        List<ComputerEngine> engines = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            engines.add(factories.get(i % factories.size()).apply(seed * MAX_PLAYERS + i));
+        }
+        return engines;
+    }
+
+    private static List<String> engineNames(String mix, int players) {
+        List<String> names = new ArrayList<>();
+        for (ComputerEngine engine : engines(mix, players, 0)) {
+            names.add(engine.getName());
+        }
+        return names;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(gc.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+
+    /**
+     * The results of a run, along with the JVM and the corpus it ran with.
+     *
+     * @param javaVersion The version of the Java runtime.
+     * @param vmName The name of the JVM.
+     * @param processors The number of processors available to the JVM.
+     * @param maxHeapBytes The maximum heap size.
+     * @param gamesPerScenario The number of games played per scenario.
+     * @param firstSeed The seed of the first game of every scenario.
+     * @param scenarios The results of every scenario.
+     */
+    public record Report(
+            String javaVersion,
+            String vmName,
+            int processors,
+            long maxHeapBytes,
+            int gamesPerScenario,
+            long firstSeed,
+            List<ScenarioResult> scenarios) {}
+
+    /**
+     * The results of one scenario.
+     *
+     * @param name The engine mix and the player count, such as {@code hard-4}.
+     * @param engines The names of the engines, by seat.
+     * @param games The number of games played.
+     * @param turns The number of turns played over all games.
+     * @param seconds The time taken to play all games.
+     * @param gamesPerSecond The games played per second.
+     * @param turnsPerSecond The turns played per second.
+     * @param decisionNanos The time computers took to decide on a card to play or discard, in
+     *     nanoseconds.
+     * @param search The search of every engine that reports its statistics.
+     * @param gcCount The number of garbage collections.
+     * @param gcMillis The time spent in garbage collections, as reported by the collectors.
+     * @param peakHeapBytes The sum of the peak usage of every heap memory pool. The pools peak at
+     *     different times, so this overestimates the peak heap usage a little.
+     * @param scoreChecksum The sum of all scores of all games.
+     */
+    public record ScenarioResult(
+            String name,
+            List<String> engines,
+            int games,
+            long turns,
+            double seconds,
+            double gamesPerSecond,
+            double turnsPerSecond,
+            Histogram.Snapshot decisionNanos,
+            List<SearchTelemetry.Summary> search,
+            long gcCount,
+            long gcMillis,
+            long peakHeapBytes,
+            long scoreChecksum) {}
+}
@@ -0,0 +1,473 @@
+package parade.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import parade.card.Card;
+import parade.card.Colour;
+import parade.card.Deck;
+import parade.card.Parade;
+import parade.computer.ComputerEngine;
+import parade.computer.HardComputerEngine;
+import parade.core.SimulatedGameEngine;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.NopLogger;
+import parade.player.Player;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.ComputerController;
+
+import java.io.IOException;
+import java.lang.instrument.Instrumentation;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Reference;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * The MemoryFootprint class measures how many bytes of heap an idle game table retains, and how
+ * those bytes are split between the structures of the game, to find out how many tables a JVM can
+ * host.
+ *
+ * <p>Every structure is built many times over and kept alive, and its size is divided by the
+ * number of instances. When the jar is loaded as a Java agent, the size is exact: the objects
+ * reachable from the instances are walked and measured with {@link Instrumentation}. Otherwise it
+ * is the growth of the used heap after garbage collection. Collections are repeated until the used
+ * heap stops shrinking, since some collectors, such as the serial collector, do not always free
+ * everything on the first request. Each structure is measured a few times and the median is kept,
+ * and measurements below the bytes the structure must take at the least are rejected as noise.
+ * The sizes include the object headers and padding of the JVM the tool runs on, so they depend on
+ * its heap size and on whether it compresses object pointers.
+ *
+ * <p>Cards are shared by the structures that hold them during a game, so the sizes of the parade,
+ * the players and the controllers leave their cards out, while the decks and the tables count
+ * every card they own. The mid-game table holds a deck, a parade, and one computer controller per
+ * player, with the cards dealt as they would be a few turns into a game.
+ *
+ * <p>Usage: {@code java [-javaagent:parade-game.jar] -cp parade-game.jar
+ * parade.benchmark.MemoryFootprint [--tables 10000] [--players 4] [--output footprint.json]}
+ */
+public class MemoryFootprint {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int PARADE_CARDS = 8;
+    private static final int HAND_CARDS = 5;
+    private static final int BOARD_CARDS = 2;
+    private static final int DECK_CARDS = 66;
+    private static final int MEASURE_ATTEMPTS = 3;
+    private static final int MAX_GC_ROUNDS = 20;
+    // The used heap has stopped shrinking once this many collections in a row freed less than
+    // STABLE_BYTES
+    private static final int STABLE_GC_ROUNDS = 3;
+    private static final long STABLE_BYTES = 16 * 1024;
+    private static final long GC_PAUSE_MILLIS = 20;
+    // A header of 12 bytes padded to 8, and a compressed reference, the least any JVM uses
+    private static final int MIN_OBJECT_BYTES = 16;
+    private static final int MIN_REFERENCE_BYTES = 4;
+    private static final int OPPONENT_COUNTERS = 17 * 11;
+    private static volatile Instrumentation instrumentation;
+
+    private final int tables;
+    private final int players;
+    // Cards shared by every structure that leaves its cards out, allocated before any baseline
+    private final List<Card> cardPool = new ArrayList<>();
+
+    /**
+     * Constructs a footprint measurement.
+     *
+     * @param tables The number of instances of every structure to build.
+     * @param players The number of players at a table.
+     * @throws IllegalArgumentException if the number of players is not between 2 and 6.
+     */
+    public MemoryFootprint(int tables, int players) {
+        if (players < 2 || players > 6) {
+            throw new IllegalArgumentException("Players must be between 2 and 6: " + players);
+        }
+        this.tables = tables;
+        this.players = players;
+        for (Colour colour : Colour.values()) {
+            for (int number = 0; number <= 10; number++) {
+                cardPool.add(new Card(number, colour));
+            }
+        }
+    }
+
+    /**
+     * Keeps the instrumentation when the jar is loaded with {@code -javaagent}, and opens the
+     * packages of {@code java.base} to this tool so it can walk the collections the game uses.
+     *
+     * @param agentArgs The arguments of the agent, unused.
+     * @param inst The instrumentation of the JVM.
+     */
+    public static void premain(String agentArgs, Instrumentation inst) {
+        Module base = Object.class.getModule();
+        Map<String, Set<Module>> opens = new HashMap<>();
+        for (String packageName : base.getPackages()) {
+            opens.put(packageName, Set.of(MemoryFootprint.class.getModule()));
+        }
+        inst.redefineModule(base, Set.of(), Map.of(), opens, Set.of(), Map.of());
+        instrumentation = inst;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int tables = 10_000;
+        int players = 4;
+        Path output = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--tables" -> tables = Integer.parseInt(args[i + 1]);
+                case "--players" -> players = Integer.parseInt(args[i + 1]);
+                case "--output" -> output = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        LoggerProvider.setInstance(new NopLogger());
+
+        Report report = new MemoryFootprint(tables, players).run();
+        System.out.printf("Collectors: %s%n", String.join(", ", report.collectors()));
+        System.out.printf("Method: %s%n", report.method());
+        for (Structure structure : report.structures()) {
+            System.out.printf(
+                    "%-40s %10.1f bytes%s%n",
+                    structure.name(),
+                    structure.bytes(),
+                    structure.rejected()
+                            ? String.format(
+                                    ", rejected below the least possible %d bytes",
+                                    structure.lowerBoundBytes())
+                            : "");
+        }
+        if (output != null) {
+            Files.writeString(output, GSON.toJson(report));
+            System.err.printf("Results written to %s%n", output);
+        }
+    }
+
+    /**
+     * Measures every structure, from single cards up to whole tables.
+     *
+     * @return The size of one instance of every structure, and how they were measured.
+     * @throws InterruptedException if interrupted while waiting for garbage collection.
+     */
+    public Report run() throws InterruptedException {
+        List<Structure> structures = new ArrayList<>();
+        // Cards are small enough for the noise of the heap to show, so many more are built
+        structures.add(
+                measure(
+                        "card",
+                        tables * cardPool.size(),
+                        lowerBound(1, 0),
+                        true,
+                        i -> new Card(i % 11, Colour.values()[i % 6])));
+        structures.add(
+                measure(
+                        "deck, 66 cards",
+                        lowerBound(DECK_CARDS + 2, DECK_CARDS),
+                        true,
+                        i -> new Deck(new Random(i))));
+        structures.add(
+                measure(
+                        "deck, 30 cards left",
+                        lowerBound(30 + 2, 30),
+                        true,
+                        i -> midGameDeck(i, 30)));
+        structures.add(
+                measure(
+                        "parade, " + PARADE_CARDS + " cards not counted",
+                        lowerBound(3, PARADE_CARDS),
+                        false,
+                        i -> Parade.restore(cardPool.subList(0, PARADE_CARDS))));
+        structures.add(
+                measure(
+                        "player, cards not counted",
+                        lowerBound(5, HAND_CARDS + BOARD_CARDS),
+                        false,
+                        i -> midGamePlayer()));
+        structures.add(
+                measure(
+                        "computer controller, cards not counted",
+                        controllerLowerBound(),
+                        false,
+                        i -> midGameController()));
+        structures.add(
+                measure(
+                        "game engine before the deal, " + players + " players",
+                        lowerBound(DECK_CARDS + 2, DECK_CARDS)
+                                + players * lowerBound(6, 0),
+                        true,
+                        i -> new SimulatedGameEngine(i, engines())));
+        structures.add(
+                measure(
+                        "table mid-game, " + players + " players",
+                        lowerBound(DECK_CARDS + 2 + 3, DECK_CARDS)
+                                + players * controllerLowerBound(),
+                        true,
+                        i -> new MidGameTable(i)));
+
+        List<String> collectors = new ArrayList<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.add(collector.getName());
+        }
+        String method =
+                instrumentation != null
+                        ? "instrumentation, exact object sizes"
+                        : "heap growth after garbage collection, median of " + MEASURE_ATTEMPTS;
+        return new Report(collectors, method, structures);
+    }
+
+    private Structure measure(
+            String name, long lowerBound, boolean countCards, IntFunction<Object> factory)
+            throws InterruptedException {
+        return measure(name, tables, lowerBound, countCards, factory);
+    }
+
+    private Structure measure(
+            String name,
+            int count,
+            long lowerBound,
+            boolean countCards,
+            IntFunction<Object> factory)
+            throws InterruptedException {
+        if (instrumentation != null) {
+            Object[] instances = new Object[count];
+            build(instances, factory);
+            double bytes = (double) reachableBytes(instances, countCards) / count;
+            return new Structure(name, bytes, lowerBound, bytes < lowerBound);
+        }
+
+        List<Double> accepted = new ArrayList<>();
+        double largest = 0;
+        for (int attempt = 0; attempt < MEASURE_ATTEMPTS; attempt++) {
+            // The array holding the instances is allocated before the baseline, it is not counted
+            Object[] instances = new Object[count];
+            long before = usedHeapAfterGc();
+            build(instances, factory);
+            long after = usedHeapAfterGc();
+            Reference.reachabilityFence(instances);
+            double bytes = (double) (after - before) / count;
+            largest = Math.max(largest, bytes);
+            if (bytes >= lowerBound) {
+                accepted.add(bytes);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return new Structure(name, largest, lowerBound, true);
+        }
+        Collections.sort(accepted);
+        return new Structure(name, accepted.get(accepted.size() / 2), lowerBound, false);
+    }
+
+    private static void build(Object[] instances, IntFunction<Object> factory) {
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = factory.apply(i);
+        }
+    }
+
+    /**
+     * Collects garbage until the used heap stops shrinking.
+     *
+     * @return The lowest used heap seen after a collection.
+     */
+    private static long usedHeapAfterGc() throws InterruptedException {
+        long lowest = Long.MAX_VALUE;
+        int stableRounds = 0;
+        for (int round = 0; round < MAX_GC_ROUNDS && stableRounds < STABLE_GC_ROUNDS; round++) {
+            System.gc();
+            Thread.sleep(GC_PAUSE_MILLIS);
+            long used = collectedHeap();
+            stableRounds = used < lowest - STABLE_BYTES ? 0 : stableRounds + 1;
+            lowest = Math.min(lowest, used);
+        }
+        return lowest;
+    }
+
+    /** The sum of the used bytes of every heap pool, right after its last collection. */
+    private static long collectedHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Adds up the sizes of every object reachable from the instances through instance fields, each
+     * counted once. Classes, enums, threads and, unless asked for, the shared cards are left out.
+     */
+    private long reachableBytes(Object[] instances, boolean countCards) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!countCards) {
+            visited.addAll(cardPool);
+        }
+        Deque<Object> pending = new ArrayDeque<>(Arrays.asList(instances));
+        long bytes = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (isShared(object) || !visited.add(object)) {
+                continue;
+            }
+            bytes += instrumentation.getObjectSize(object);
+            Class<?> type = object.getClass();
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (Object element : (Object[]) object) {
+                        if (element != null) {
+                            pending.push(element);
+                        }
+                    }
+                }
+                continue;
+            }
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        Object value = field.get(object);
+                        if (value != null) {
+                            pending.push(value);
+                        }
+                    } catch (InaccessibleObjectException | IllegalAccessException e) {
+                        // Not opened to the agent, the object is counted without what it holds
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isShared(Object object) {
+        return object instanceof Class
+                || object instanceof Enum
+                || object instanceof Thread
+                || object instanceof ClassLoader
+                || object instanceof Module;
+    }
+
+    /**
+     * Get the least number of bytes a structure can take.
+     *
+     * @param objects The number of objects the structure is known to be made of.
+     * @param references The number of references its arrays are known to hold.
+     */
+    private static long lowerBound(int objects, int references) {
+        return (long) objects * MIN_OBJECT_BYTES + (long) references * MIN_REFERENCE_BYTES;
+    }
+
+    /**
+     * The controller, its player with two lists and their arrays, its engine and opponent model,
+     * and the counters of every opponent.
+     */
+    private long controllerLowerBound() {
+        int opponents = players - 1;
+        return lowerBound(8 + 2 * opponents, HAND_CARDS + BOARD_CARDS)
+                + (long) opponents * OPPONENT_COUNTERS * Integer.BYTES;
+    }
+
+    private static Deck midGameDeck(long seed, int cardsLeft) {
+        Deck deck = new Deck(new Random(seed));
+        deck.pop(deck.size() - cardsLeft);
+        return deck;
+    }
+
+    private Player midGamePlayer() {
+        Player player = new Player("Player");
+        player.addToHand(cardPool.subList(0, HAND_CARDS).toArray(Card[]::new));
+        player.addToBoard(
+                cardPool.subList(HAND_CARDS, HAND_CARDS + BOARD_CARDS).toArray(Card[]::new));
+        return player;
+    }
+
+    private ComputerController midGameController() {
+        ComputerController controller = new ComputerController("Player", new HardComputerEngine());
+        controller.draw(cardPool.subList(0, HAND_CARDS).toArray(Card[]::new));
+        controller.receiveFromParade(
+                cardPool.subList(HAND_CARDS, HAND_CARDS + BOARD_CARDS).toArray(Card[]::new));
+        // The opponent model keeps statistics of every other player once they have played
+        for (int seat = 1; seat < players; seat++) {
+            ComputerController opponent =
+                    new ComputerController("Opponent " + seat, new HardComputerEngine());
+            controller.onCardPlayed(
+                    opponent, PARADE_CARDS, cardPool.get(seat), cardPool.subList(0, 1));
+        }
+        return controller;
+    }
+
+    private List<ComputerEngine> engines() {
+        List<ComputerEngine> engines = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            engines.add(new HardComputerEngine());
+        }
+        return engines;
+    }
+
+    /**
+     * The state of a table a few turns into a game, with all of its cards dealt from its own deck.
+     */
+    private class MidGameTable {
+        private final Deck deck;
+        private final Parade parade;
+        private final List<AbstractPlayerController> controllers = new ArrayList<>(6);
+
+        MidGameTable(long seed) {
+            deck = new Deck(new Random(seed));
+            parade = Parade.restore(deck.pop(PARADE_CARDS));
+            for (int seat = 0; seat < players; seat++) {
+                ComputerController controller =
+                        new ComputerController("Seat " + seat, new HardComputerEngine());
+                controller.draw(deck.pop(HAND_CARDS).toArray(Card[]::new));
+                controller.receiveFromParade(deck.pop(BOARD_CARDS).toArray(Card[]::new));
+                controllers.add(controller);
+            }
+            for (AbstractPlayerController controller : controllers) {
+                for (AbstractPlayerController opponent : controllers) {
+                    controller.onCardPlayed(
+                            opponent, PARADE_CARDS, parade.getCards().get(0), List.of());
+                }
+            }
+        }
+    }
+
+    /**
+     * The sizes of the structures of the game, and how they were measured.
+     *
+     * @param collectors The names of the garbage collectors of the JVM.
+     * @param method How the sizes were measured.
+     * @param structures The size of every structure.
+     */
+    public record Report(List<String> collectors, String method, List<Structure> structures) {}
+
+    /**
+     * The size of a structure of the game.
+     *
+     * @param name What was measured.
+     * @param bytes The bytes of heap one instance retains.
+     * @param lowerBoundBytes The least bytes one instance can take, from the objects it is known to
+     *     be made of.
+     * @param rejected Whether every measurement fell below the lower bound, in which case the
+     *     largest one is reported and the size is not to be trusted.
+     */
+    public record Structure(String name, double bytes, long lowerBoundBytes, boolean rejected) {}
+}
@@ -7,17 +7,28 @@ import java.util.*;
 
 public class Deck extends Stack<Card> {
     public Deck() {
+        this(new Random());
+    }
+
+    /**
+     * Constructs a deck shuffled with the given random number generator. Decks shuffled by
+     * generators created with the same seed are in the same order, which allows games to be
+     * replayed.
+     *
+     * @param random The random number generator to shuffle the deck with.
+     */
+    public Deck(Random random) {
         this.ensureCapacity(66); // We know it'll always be 6 (color) * 11 (0-10) cards
         for (Colour colour : Colour.values()) {
             for (int i = 0; i <= 10; i++) {
                 this.push(new Card(i, colour));
             }
         }
-        shuffle();
+        shuffle(random);
     }
 
-    private void shuffle() {
-        Collections.shuffle(this);
+    private void shuffle(Random random) {
+        Collections.shuffle(this, random);
     }
 
     /**
@@ -18,6 +18,21 @@ public class Parade {
         this.cards = new LinkedList<>(parade.cards);
     }
 
+    private Parade() {}
+
+    /**
+     * Restores a parade in the middle of a game, where it can hold any number of cards. Unlike the
+     * constructor, no cards are checked against the opening parade size.
+     *
+     * @param cards The cards in the parade, from the front to the back of the parade.
+     * @return The restored parade.
+     */
+    public static Parade restore(List<Card> cards) {
+        Parade parade = new Parade();
+        parade.cards.addAll(cards);
+        return parade;
+    }
+
     public List<Card> placeCard(Card placeCard) {
         List<Card> removedCards = new ArrayList<>();
         if ((this.cards).size() > placeCard.getNumber()) {
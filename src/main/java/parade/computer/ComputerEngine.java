@@ -8,9 +8,16 @@ import parade.player.controller.PlayCardData;
  * The ComputerEngine interface is an interface for all computer engines built to interact with the
  * game.
  *
- * <p>The impls of ComputerEngine should be stateless and relies on the process method that allows
- * it to consume all required information to process the game state and return the ideal card to
- * play.
+ * <p>The impls of ComputerEngine rely on the process method that allows it to consume all required
+ * information to process the game state and return the ideal card to play. The card chosen should
+ * depend only on the position and the {@link OpponentModel} passed in and, for engines that play at
+ * random, their random number generator, so a move worked out ahead of time can be reused once the
+ * position arises.
+ *
+ * <p>Controllers ponder on background threads, so an engine may be asked to decide on several
+ * threads at once and must be safe to use that way. State kept between decisions is limited to
+ * bookkeeping that does not change the cards chosen and is kept per thread, such as the statistics
+ * reported through {@link #getLastSearchStats()}.
  */
 public interface ComputerEngine {
     /**
@@ -25,14 +32,54 @@ public interface ComputerEngine {
      * attempt to restrict from passing a modifiable list of cards to the computer engine and should
      * disable the .removeFromHand() method in the player passed to the computer engine.
      *
+     * <p>Controllers cancel a search they no longer need, such as pondering on a position that did
+     * not arise, by interrupting the thread running it. Engines that search for long should check
+     * {@link Thread#isInterrupted()} between candidates and return early once it is set, with any
+     * card from the hand, which the caller then discards.
+     *
      * @param player The player that this computer is playing for.
      * @param playCardData The game state that the computer engine can use to make its decision.
      * @return The ideal card to play.
      */
     Card process(Player player, PlayCardData playCardData);
 
+    /**
+     * Process the game state with the given model of the opponents instead of the attached one.
+     * Controllers pass the model explicitly, so that a move pondered ahead of time is chosen with
+     * the model the game will have once the position arises. Engines ignore the model by default.
+     *
+     * @param player The player that this computer is playing for.
+     * @param playCardData The game state that the computer engine can use to make its decision.
+     * @param opponentModel The model of the opponents, or null to search without one.
+     * @return The ideal card to play.
+     */
+    default Card process(Player player, PlayCardData playCardData, OpponentModel opponentModel) {
+        return process(player, playCardData);
+    }
+
     Card discardCard(Player player, PlayCardData playCardData);
 
+    /**
+     * Attaches a model of the opponents' play to the engine. The model is kept up to date by the
+     * controller as cards are played, and engines that support it can use it to weigh the
+     * opponents' replies by how likely they are. Engines ignore the model by default.
+     *
+     * @param opponentModel The model of the opponents.
+     */
+    default void setOpponentModel(OpponentModel opponentModel) {}
+
+    /**
+     * Get the statistics of the search behind the last card the engine chose to play on the
+     * calling thread. Controllers may run the same engine on several threads at once while
+     * pondering, so each thread sees the statistics of its own decisions.
+     *
+     * @return The statistics, or null if the engine does not collect them or has not chosen a card
+     *     to play on this thread yet.
+     */
+    default SearchStats getLastSearchStats() {
+        return null;
+    }
+
     /**
      * Get the name of the engine.
      *
@@ -0,0 +1,62 @@
+package parade.computer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Random;
+
+/** Helpers to create computer engines by class name, for engines running in worker processes. */
+public final class ComputerEngines {
+    private ComputerEngines() {}
+
+    /**
+     * Creates a computer engine from its class name using its public no-arg constructor.
+     *
+     * @param className The fully qualified class name of the engine.
+     * @return A new instance of the engine.
+     * @throws IllegalArgumentException if the class is not a computer engine or cannot be created.
+     */
+    public static ComputerEngine load(String className) {
+        try {
+            return engineClass(className).getDeclaredConstructor().newInstance();
+        } catch (NoSuchMethodException
+                | InstantiationException
+                | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new IllegalArgumentException("Cannot load computer engine: " + className, e);
+        }
+    }
+
+    /**
+     * Creates a computer engine from its class name whose choices depend only on the given seed.
+     * Engines with a public constructor taking a {@link Random} are given a generator created with
+     * the seed, and other engines, which make no random choices, are created with their public
+     * no-arg constructor.
+     *
+     * @param className The fully qualified class name of the engine.
+     * @param seed The seed of the random number generator of the engine.
+     * @return A new instance of the engine.
+     * @throws IllegalArgumentException if the class is not a computer engine or cannot be created.
+     */
+    public static ComputerEngine load(String className, long seed) {
+        Class<? extends ComputerEngine> engineClass = engineClass(className);
+        Constructor<? extends ComputerEngine> seeded;
+        try {
+            seeded = engineClass.getConstructor(Random.class);
+        } catch (NoSuchMethodException e) {
+            return load(className);
+        }
+        try {
+            return seeded.newInstance(new Random(seed));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Cannot load computer engine: " + className, e);
+        }
+    }
+
+    private static Class<? extends ComputerEngine> engineClass(String className) {
+        try {
+            return Class.forName(className).asSubclass(ComputerEngine.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Cannot load computer engine: " + className, e);
+        }
+    }
+}
@@ -12,15 +12,32 @@ import java.util.Random;
  * <p>EasyComputerEngine selects a card to play randomly from the player's hand.
  */
 public class EasyComputerEngine implements ComputerEngine {
+    private final Random random;
+
+    public EasyComputerEngine() {
+        this(new Random());
+    }
+
+    /**
+     * Constructs an engine that picks its cards with the given random number generator. Engines
+     * given generators created with the same seed make the same choices, which allows games to be
+     * replayed.
+     *
+     * @param random The random number generator to pick cards with.
+     */
+    public EasyComputerEngine(Random random) {
+        this.random = random;
+    }
+
     @Override
     public Card process(Player player, PlayCardData playCardData) {
-        int randIdx = new Random().nextInt(player.getHand().size());
+        int randIdx = random.nextInt(player.getHand().size());
         return player.getHand().get(randIdx);
     }
 
     @Override
     public Card discardCard(Player player, PlayCardData playCardData) {
-        int randIdx = new Random().nextInt(player.getHand().size());
+        int randIdx = random.nextInt(player.getHand().size());
         return player.getHand().get(randIdx);
     }
 
@@ -7,6 +7,7 @@ import parade.player.controller.PlayCardData;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -20,17 +21,53 @@ import java.util.Map;
  * opponent (i.e., forcing them into bad moves).
  *
  * <p>This engine simulates the loss it would incur for each possible move and also predicts how
- * much it can force the opponent to lose.
+ * much it can force the opponent to lose. Without an opponent model it assumes every opponent
+ * replies with the card that scores them best. With an {@link OpponentModel} attached it scores
+ * each opponent by the expected value of their reply instead, with each card in their hand
+ * weighted by how likely that opponent is to play it.
+ *
+ * <p>The search of each decision is reported in two phases, {@code candidates} for scoring its own
+ * cards and {@code replies} for scoring every reply of the opponents to each of them.
  */
 public class HardComputerEngine implements ComputerEngine {
+    private final ThreadLocal<SearchStats> lastSearchStats = new ThreadLocal<>();
+    private volatile OpponentModel opponentModel;
+
+    @Override
+    public void setOpponentModel(OpponentModel opponentModel) {
+        this.opponentModel = opponentModel;
+    }
 
     public Card process(Player player, PlayCardData playCardData) {
+        return process(player, playCardData, opponentModel);
+    }
+
+    @Override
+    public Card process(Player player, PlayCardData playCardData, OpponentModel model) {
+        long start = System.nanoTime();
+        long repliesNanos = 0;
+        long positions = 0;
+        int maxDepth = 0;
         Card bestCard = player.getHand().get(0);
         double bestDelta = Double.MAX_VALUE;
 
         List<Card> hand = new ArrayList<>(player.getHand());
+        double[] probabilities = null;
+        if (model != null) {
+            int maxHandSize = 0;
+            for (AbstractPlayerController token : playCardData.getOtherPlayers()) {
+                maxHandSize = Math.max(maxHandSize, token.getPlayer().getHand().size());
+            }
+            probabilities = new double[maxHandSize];
+        }
 
         for (Card candidateCard : hand) {
+            if (Thread.currentThread().isInterrupted()) {
+                // The search was cancelled, the caller discards whatever card is returned
+                break;
+            }
+            positions++;
+            maxDepth = Math.max(maxDepth, 1);
             Parade paradeCopy1 = new Parade(playCardData.getParade());
             List<Card> tempBoard = new ArrayList<>(player.getBoard());
 
@@ -46,13 +83,25 @@ public class HardComputerEngine implements ComputerEngine {
                     decideMajority(player, currentPlayers, getPlayerBoardMaps(currentPlayers));
             int currentScore = calculateScore(tempBoard, majorityColours);
 
+            long repliesStart = System.nanoTime();
             List<Double> playerBestDeltas = new ArrayList<>();
             for (Player otherPlayer : currentPlayers) {
                 double bestOpponentScore = 0;
                 if (player.equals(otherPlayer)) {
                     continue;
                 }
-                for (Card opponentCard : otherPlayer.getHand()) {
+                List<Card> opponentHand = otherPlayer.getHand();
+                if (model != null) {
+                    model.replyProbabilities(
+                            otherPlayer.getName(),
+                            opponentHand,
+                            playCardData.getParade().getCards(),
+                            probabilities);
+                }
+                for (int i = 0; i < opponentHand.size(); i++) {
+                    Card opponentCard = opponentHand.get(i);
+                    positions++;
+                    maxDepth = 2;
                     Parade paradeCopy2 = new Parade(playCardData.getParade());
                     List<Card> tempOppBoard = new ArrayList<>(otherPlayer.getBoard());
 
@@ -66,12 +115,17 @@ public class HardComputerEngine implements ComputerEngine {
                     List<Colour> oppColours =
                             decideMajority(otherPlayer, currentPlayers, currentBoardMap);
                     int opponentScore = calculateScore(tempOppBoard, oppColours);
-                    bestOpponentScore = Math.min(bestOpponentScore, opponentScore);
+                    if (model == null) {
+                        bestOpponentScore = Math.min(bestOpponentScore, opponentScore);
+                    } else {
+                        bestOpponentScore += probabilities[i] * opponentScore;
+                    }
                 }
 
                 double delta = bestOpponentScore - currentScore;
                 playerBestDeltas.add(delta);
             }
+            repliesNanos += System.nanoTime() - repliesStart;
 
             double avgDelta = 0.0;
 
@@ -86,9 +140,19 @@ public class HardComputerEngine implements ComputerEngine {
                 bestCard = candidateCard;
             }
         }
+        long nanos = System.nanoTime() - start;
+        Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        phaseNanos.put("candidates", nanos - repliesNanos);
+        phaseNanos.put("replies", repliesNanos);
+        lastSearchStats.set(new SearchStats(positions, maxDepth, 0, nanos, phaseNanos));
         return bestCard;
     }
 
+    @Override
+    public SearchStats getLastSearchStats() {
+        return lastSearchStats.get();
+    }
+
     public List<Card> simulateParadeRemoval(List<Card> cards, Card placeCard) {
         List<Card> removedCards = new ArrayList<>();
 
@@ -0,0 +1,173 @@
+package parade.computer;
+
+import parade.card.Card;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The OpponentModel class learns how each opponent tends to play over the course of a game. It is
+ * fed with every card played at the table and keeps a few primitive counters per opponent, so that
+ * recording a play is a constant time update with no allocation once the opponent is known.
+ *
+ * <p>Two tendencies are tracked for every opponent: which card numbers they prefer to play for a
+ * given parade length, and how often they play a card that takes cards from the parade. From these
+ * the model derives a probability for each card an opponent could reply with, which search engines
+ * can use to weigh the opponent's replies instead of assuming uniform or worst-case play.
+ *
+ * <p>The model is updated by the game thread only. Pondering threads search with a {@link #copy()}
+ * taken on the game thread, with the reply they ponder on already recorded in it, so the counters
+ * need no synchronisation and a pondered move is chosen with the model the game will have by then.
+ */
+public class OpponentModel {
+    // Parades longer than this are rare and are counted together with this length
+    private static final int MAX_PARADE_LENGTH = 16;
+    private static final int CARD_NUMBERS = 11;
+    // Laplace smoothing, so an opponent we know nothing about is assumed to play uniformly
+    private static final double PRIOR = 1.0;
+
+    private final Map<String, OpponentStats> opponents = new HashMap<>();
+    private int recordedPlays;
+
+    /**
+     * Records a card played by an opponent.
+     *
+     * @param playerName The name of the player who played the card.
+     * @param paradeLength The length of the parade before the card was placed.
+     * @param playedCard The card played.
+     * @param takenCount The number of cards the player took from the parade.
+     */
+    public void recordPlay(String playerName, int paradeLength, Card playedCard, int takenCount) {
+        OpponentStats stats = opponents.computeIfAbsent(playerName, name -> new OpponentStats());
+        int length = Math.min(paradeLength, MAX_PARADE_LENGTH);
+        stats.playedNumbers[length * CARD_NUMBERS + playedCard.getNumber()]++;
+        stats.turns++;
+        if (takenCount > 0) {
+            stats.takingTurns++;
+            stats.cardsTaken += takenCount;
+        }
+        recordedPlays++;
+    }
+
+    /**
+     * Get the number of plays recorded for all opponents, copies included. It grows with every
+     * play, so it tells apart the states a model goes through over a game.
+     *
+     * @return The number of recorded plays.
+     */
+    public int getRecordedPlays() {
+        return recordedPlays;
+    }
+
+    /**
+     * Copies the model, so that plays that have not happened yet can be recorded in the copy
+     * without changing the model of the game.
+     *
+     * @return A new model with the same counters.
+     */
+    public OpponentModel copy() {
+        OpponentModel copy = new OpponentModel();
+        for (Map.Entry<String, OpponentStats> entry : opponents.entrySet()) {
+            copy.opponents.put(entry.getKey(), entry.getValue().copy());
+        }
+        copy.recordedPlays = recordedPlays;
+        return copy;
+    }
+
+    /**
+     * Get how often the opponent plays a card that takes cards from the parade.
+     *
+     * @param playerName The name of the opponent.
+     * @return The smoothed rate of turns where the opponent took cards, between 0 and 1.
+     */
+    public double takeRate(String playerName) {
+        OpponentStats stats = opponents.get(playerName);
+        if (stats == null) {
+            return 0.5;
+        }
+        return (stats.takingTurns + PRIOR) / (stats.turns + 2 * PRIOR);
+    }
+
+    /**
+     * Get the average number of cards the opponent takes from the parade per turn.
+     *
+     * @param playerName The name of the opponent.
+     * @return The average number of cards taken per turn, or 0 if nothing was recorded.
+     */
+    public double averageCardsTaken(String playerName) {
+        OpponentStats stats = opponents.get(playerName);
+        return stats == null || stats.turns == 0 ? 0 : (double) stats.cardsTaken / stats.turns;
+    }
+
+    /**
+     * Get the number of plays recorded for the opponent.
+     *
+     * @param playerName The name of the opponent.
+     * @return The number of recorded plays.
+     */
+    public int getTurns(String playerName) {
+        OpponentStats stats = opponents.get(playerName);
+        return stats == null ? 0 : stats.turns;
+    }
+
+    /**
+     * Computes the probability of the opponent replying with each card of their hand.
+     *
+     * @param playerName The name of the opponent.
+     * @param hand The opponent's hand.
+     * @param parade The parade the opponent will play into.
+     * @param probabilities The array to write the probabilities to, in the order of the hand. It
+     *     must be at least as long as the hand.
+     */
+    public void replyProbabilities(
+            String playerName, List<Card> hand, List<Card> parade, double[] probabilities) {
+        OpponentStats stats = opponents.get(playerName);
+        int length = Math.min(parade.size(), MAX_PARADE_LENGTH);
+        double takeRate = takeRate(playerName);
+
+        double total = 0;
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            double numberWeight =
+                    stats == null
+                            ? PRIOR
+                            : stats.playedNumbers[length * CARD_NUMBERS + card.getNumber()] + PRIOR;
+            double takeWeight = takesAny(parade, card) ? takeRate : 1 - takeRate;
+            probabilities[i] = numberWeight * takeWeight;
+            total += probabilities[i];
+        }
+        for (int i = 0; i < hand.size(); i++) {
+            probabilities[i] = total > 0 ? probabilities[i] / total : 1.0 / hand.size();
+        }
+    }
+
+    private static boolean takesAny(List<Card> parade, Card card) {
+        int removeZone = parade.size() - card.getNumber();
+        for (int i = 0; i < removeZone; i++) {
+            Card paradeCard = parade.get(i);
+            if (paradeCard.getNumber() <= card.getNumber()
+                    || paradeCard.getColour() == card.getColour()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The counters of a single opponent. */
+    private static final class OpponentStats {
+        private final int[] playedNumbers = new int[(MAX_PARADE_LENGTH + 1) * CARD_NUMBERS];
+        private int turns;
+        private int takingTurns;
+        private long cardsTaken;
+
+        private OpponentStats copy() {
+            OpponentStats copy = new OpponentStats();
+            System.arraycopy(playedNumbers, 0, copy.playedNumbers, 0, playedNumbers.length);
+            copy.turns = turns;
+            copy.takingTurns = takingTurns;
+            copy.cardsTaken = cardsTaken;
+            return copy;
+        }
+    }
+}
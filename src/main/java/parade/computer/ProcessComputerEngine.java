@@ -0,0 +1,317 @@
+package parade.computer;
+
+import parade.card.Card;
+import parade.computer.protocol.EngineProtocol;
+import parade.computer.protocol.EngineWorker;
+import parade.logger.LoggerProvider;
+import parade.player.Player;
+import parade.player.controller.PlayCardData;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * The ProcessComputerEngine class runs another computer engine in separate worker processes and
+ * talks to them through the {@link EngineProtocol}. Each worker is its own JVM with its own heap
+ * and GC settings, so an expensive engine never pauses the game process, and several decisions can
+ * be computed in parallel when more than one worker is pooled.
+ *
+ * <p>Workers are launched lazily up to the pool size and are reused between decisions. A worker
+ * that fails to answer in time, answers with an invalid card or dies is killed and replaced, and
+ * the decision falls back to running the engine in process, so a misbehaving engine can neither
+ * crash nor stall the table. A decision cancelled by interrupting its thread returns at once, and
+ * its worker is returned to the pool once its answer has arrived and been thrown away.
+ *
+ * <p>The {@link EngineProtocol} only carries the position, so the workers cannot use an {@link
+ * OpponentModel} and search as if none was attached. The model is still handed to the wrapped
+ * engine, which uses it whenever a decision falls back to running in process.
+ */
+public class ProcessComputerEngine implements ComputerEngine, AutoCloseable {
+    private static final ExecutorService READERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ComputerEngine engine;
+    private final int poolSize;
+    private volatile long timeoutMillis;
+    private final List<String> jvmArgs;
+    private final BlockingQueue<EngineProcess> idleProcesses = new LinkedBlockingQueue<>();
+    private final AtomicInteger launchedProcesses = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Constructs an engine that runs the given engine out of process.
+     *
+     * @param engine The engine to run in the workers, it must have a public no-arg constructor. It
+     *     is also used in process whenever a worker fails.
+     * @param poolSize The maximum number of worker processes.
+     * @param timeoutMillis The time a worker is given to start up or to answer a single decision.
+     * @param jvmArgs Additional JVM arguments for the workers, such as heap and GC settings.
+     */
+    public ProcessComputerEngine(
+            ComputerEngine engine, int poolSize, long timeoutMillis, List<String> jvmArgs) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.engine = engine;
+        this.poolSize = poolSize;
+        this.timeoutMillis = timeoutMillis;
+        this.jvmArgs = List.copyOf(jvmArgs);
+    }
+
+    @Override
+    public Card process(Player player, PlayCardData playCardData) {
+        return decide(player, playCardData, EngineProtocol.GO_PLAY, engine::process);
+    }
+
+    @Override
+    public Card process(Player player, PlayCardData playCardData, OpponentModel opponentModel) {
+        return decide(
+                player,
+                playCardData,
+                EngineProtocol.GO_PLAY,
+                (self, position) -> engine.process(self, position, opponentModel));
+    }
+
+    @Override
+    public Card discardCard(Player player, PlayCardData playCardData) {
+        return decide(player, playCardData, EngineProtocol.GO_DISCARD, engine::discardCard);
+    }
+
+    @Override
+    public void setOpponentModel(OpponentModel opponentModel) {
+        engine.setOpponentModel(opponentModel);
+    }
+
+    @Override
+    public String getName() {
+        return engine.getName();
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Set the time a worker is given to answer a single decision, taking effect from the next
+     * decision on.
+     *
+     * @param timeoutMillis The time limit in milliseconds.
+     * @throws IllegalArgumentException if the time limit is not positive.
+     */
+    public void setTimeoutMillis(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive: " + timeoutMillis);
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    private Card decide(
+            Player player,
+            PlayCardData playCardData,
+            String goCommand,
+            BiFunction<Player, PlayCardData, Card> fallback) {
+        EngineProcess engineProcess = null;
+        try {
+            engineProcess = acquire();
+            engineProcess.send(EngineProtocol.encodePosition(player, playCardData));
+            engineProcess.send(goCommand);
+            String reply = engineProcess.receive(timeoutMillis);
+            if (!reply.startsWith(EngineProtocol.BEST_CARD + " ")) {
+                throw new IOException("Unexpected reply from engine: " + reply);
+            }
+            Card card =
+                    EngineProtocol.findCard(
+                            player.getHand(),
+                            EngineProtocol.decodeCard(
+                                    reply.substring(EngineProtocol.BEST_CARD.length() + 1)));
+            if (card == null) {
+                throw new IOException("Engine chose a card that is not in hand: " + reply);
+            }
+            release(engineProcess);
+            return card;
+        } catch (InterruptedException e) {
+            // The decision was cancelled, the worker is healthy and is kept once it has answered
+            Thread.currentThread().interrupt();
+            if (engineProcess != null) {
+                drain(engineProcess);
+            }
+            return player.getHand().getFirst();
+        } catch (IOException | TimeoutException | IllegalArgumentException e) {
+            LoggerProvider.getInstance()
+                    .log(getName() + " worker failed, deciding in process instead", e);
+            kill(engineProcess);
+        }
+        return fallback.apply(player, playCardData);
+    }
+
+    private EngineProcess acquire() throws IOException, InterruptedException, TimeoutException {
+        if (closed) {
+            throw new IOException("Engine is closed");
+        }
+        EngineProcess engineProcess = idleProcesses.poll();
+        if (engineProcess != null) {
+            return engineProcess;
+        }
+        int launched = launchedProcesses.get();
+        while (launched < poolSize) {
+            if (launchedProcesses.compareAndSet(launched, launched + 1)) {
+                try {
+                    return launch();
+                } catch (IOException | TimeoutException | InterruptedException e) {
+                    launchedProcesses.decrementAndGet();
+                    throw e;
+                }
+            }
+            launched = launchedProcesses.get();
+        }
+        engineProcess = idleProcesses.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (engineProcess == null) {
+            throw new TimeoutException("No engine worker became available in time");
+        }
+        return engineProcess;
+    }
+
+    private EngineProcess launch() throws IOException, InterruptedException, TimeoutException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(EngineWorker.class.getName());
+        command.add(engine.getClass().getName());
+
+        Process process =
+                new ProcessBuilder(command)
+                        .redirectError(ProcessBuilder.Redirect.DISCARD)
+                        .start();
+        EngineProcess engineProcess = new EngineProcess(process);
+        try {
+            engineProcess.send(EngineProtocol.HANDSHAKE);
+            String reply;
+            do {
+                reply = engineProcess.receive(timeoutMillis);
+            } while (reply.startsWith(EngineProtocol.ID_NAME));
+            if (!reply.equals(EngineProtocol.HANDSHAKE_OK)) {
+                throw new IOException("Unexpected handshake from engine: " + reply);
+            }
+        } catch (IOException | TimeoutException | InterruptedException e) {
+            engineProcess.destroy();
+            throw e;
+        }
+        LoggerProvider.getInstance()
+                .logf("Launched %s worker process %d", getName(), process.pid());
+        return engineProcess;
+    }
+
+    /**
+     * Waits in the background for the reply to a cancelled decision and throws it away, then
+     * returns the worker to the pool. A worker that does not answer in time is killed.
+     */
+    private void drain(EngineProcess engineProcess) {
+        READERS.execute(
+                () -> {
+                    try {
+                        engineProcess.awaitPending(timeoutMillis);
+                        release(engineProcess);
+                    } catch (IOException | TimeoutException | InterruptedException e) {
+                        kill(engineProcess);
+                    }
+                });
+    }
+
+    private void release(EngineProcess engineProcess) {
+        idleProcesses.add(engineProcess);
+        if (closed) {
+            // Closed while the worker was deciding, stop it now that it is idle
+            close();
+        }
+    }
+
+    private void kill(EngineProcess engineProcess) {
+        if (engineProcess != null) {
+            engineProcess.destroy();
+            launchedProcesses.decrementAndGet();
+        }
+    }
+
+    /** Stops all idle worker processes, workers still deciding are stopped once they are done. */
+    @Override
+    public void close() {
+        closed = true;
+        EngineProcess engineProcess;
+        while ((engineProcess = idleProcesses.poll()) != null) {
+            try {
+                engineProcess.send(EngineProtocol.QUIT);
+            } catch (IOException e) {
+                // Worker is gone already, nothing to stop
+            }
+            kill(engineProcess);
+        }
+    }
+
+    /** A single worker process and the pipes to its stdin and stdout. */
+    private static class EngineProcess {
+        private final Process process;
+        private final BufferedWriter in;
+        private final BufferedReader out;
+        private volatile Future<String> pending;
+
+        EngineProcess(Process process) {
+            this.process = process;
+            this.in =
+                    new BufferedWriter(
+                            new OutputStreamWriter(
+                                    process.getOutputStream(), StandardCharsets.UTF_8));
+            this.out =
+                    new BufferedReader(
+                            new InputStreamReader(
+                                    process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        void send(String line) throws IOException {
+            in.write(line);
+            in.newLine();
+            in.flush();
+        }
+
+        /**
+         * Reads the next line from the worker. If the calling thread is interrupted, the line is
+         * left pending and must be read with {@link #awaitPending} before the worker is reused.
+         */
+        String receive(long timeoutMillis)
+                throws IOException, InterruptedException, TimeoutException {
+            pending = READERS.submit(out::readLine);
+            return awaitPending(timeoutMillis);
+        }
+
+        String awaitPending(long timeoutMillis)
+                throws IOException, InterruptedException, TimeoutException {
+            Future<String> line = pending;
+            if (line == null) {
+                return null;
+            }
+            try {
+                String reply = line.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                pending = null;
+                if (reply == null) {
+                    throw new EOFException("Engine worker exited");
+                }
+                return reply.trim();
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to read from engine worker", e.getCause());
+            } catch (TimeoutException e) {
+                line.cancel(true);
+                throw e;
+            }
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
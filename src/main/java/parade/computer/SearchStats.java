@@ -0,0 +1,34 @@
+package parade.computer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The statistics of the search behind one decision of a computer engine, to tell a slow decision
+ * that searched more apart from one that searched less efficiently.
+ *
+ * @param positions The number of positions evaluated, counting every card the engine tried and
+ *     every reply of the opponents it considered.
+ * @param maxDepth The deepest number of moves looked ahead, 1 when only the engine's own cards
+ *     are tried.
+ * @param cacheHits The number of positions answered from a cache instead of being evaluated.
+ * @param nanos The time the decision took.
+ * @param phaseNanos The time spent in each phase of the search, in the order the phases run. The
+ *     phases depend on the engine.
+ */
+public record SearchStats(
+        long positions, int maxDepth, long cacheHits, long nanos, Map<String, Long> phaseNanos) {
+    public SearchStats {
+        phaseNanos = Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos));
+    }
+
+    /**
+     * Get the number of positions evaluated per second of the decision.
+     *
+     * @return The positions per second, 0 if the decision took no measurable time.
+     */
+    public double positionsPerSecond() {
+        return nanos > 0 ? positions * 1e9 / nanos : 0;
+    }
+}
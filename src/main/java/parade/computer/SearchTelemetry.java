@@ -0,0 +1,177 @@
+package parade.computer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The SearchTelemetry class adds up the {@link SearchStats} of every decision by engine name, for
+ * the process as a whole, so the search of different engines, or of the same engine on different
+ * commits, can be compared.
+ *
+ * <p>Decisions of engines that do not report statistics are not counted, except for the moves a
+ * controller reused from pondering, which are counted as cache hits of the engine. The searches of
+ * pondering itself are speculative, most of them are never played, so they are added up apart from
+ * the decisions and do not count towards their totals.
+ */
+public final class SearchTelemetry {
+    private static final ConcurrentMap<String, Totals> totals = new ConcurrentSkipListMap<>();
+    private static final ConcurrentMap<String, Totals> ponderTotals =
+            new ConcurrentSkipListMap<>();
+
+    private SearchTelemetry() {}
+
+    /**
+     * Adds the statistics of a decision to the totals of the engine.
+     *
+     * @param engineName The name of the engine that made the decision.
+     * @param stats The statistics of the decision, ignored if null.
+     */
+    public static void record(String engineName, SearchStats stats) {
+        if (stats != null) {
+            totals.computeIfAbsent(engineName, unused -> new Totals()).add(stats);
+        }
+    }
+
+    /**
+     * Adds the statistics of a search made while pondering to the pondering totals of the engine.
+     *
+     * @param engineName The name of the engine that searched.
+     * @param stats The statistics of the search, ignored if null.
+     */
+    public static void recordPondering(String engineName, SearchStats stats) {
+        if (stats != null) {
+            ponderTotals.computeIfAbsent(engineName, unused -> new Totals()).add(stats);
+        }
+    }
+
+    /**
+     * Counts a decision that was answered without searching, such as a move reused from pondering.
+     *
+     * @param engineName The name of the engine whose move was reused.
+     */
+    public static void recordCacheHit(String engineName) {
+        totals.computeIfAbsent(engineName, unused -> new Totals()).addCacheHit();
+    }
+
+    /**
+     * Get the totals of every engine that made a decision since the last reset.
+     *
+     * @return The totals, ordered by engine name.
+     */
+    public static List<Summary> summaries() {
+        return summaries(totals);
+    }
+
+    /**
+     * Get the totals of the searches made while pondering by every engine since the last reset,
+     * where each search counts as a decision.
+     *
+     * @return The totals, ordered by engine name.
+     */
+    public static List<Summary> ponderSummaries() {
+        return summaries(ponderTotals);
+    }
+
+    private static List<Summary> summaries(Map<String, Totals> totals) {
+        List<Summary> summaries = new ArrayList<>();
+        for (Map.Entry<String, Totals> entry : totals.entrySet()) {
+            summaries.add(entry.getValue().summary(entry.getKey()));
+        }
+        return summaries;
+    }
+
+    /** Forgets the totals of all engines. */
+    public static void reset() {
+        totals.clear();
+        ponderTotals.clear();
+    }
+
+    /** The running totals of one engine, decisions from pondering threads add to them at once. */
+    private static final class Totals {
+        private long decisions;
+        private long positions;
+        private int maxDepth;
+        private long cacheHits;
+        private long nanos;
+        private long maxNanos;
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+
+        synchronized void add(SearchStats stats) {
+            decisions++;
+            positions += stats.positions();
+            maxDepth = Math.max(maxDepth, stats.maxDepth());
+            cacheHits += stats.cacheHits();
+            nanos += stats.nanos();
+            maxNanos = Math.max(maxNanos, stats.nanos());
+            for (Map.Entry<String, Long> phase : stats.phaseNanos().entrySet()) {
+                phaseNanos.merge(phase.getKey(), phase.getValue(), Long::sum);
+            }
+        }
+
+        synchronized void addCacheHit() {
+            cacheHits++;
+        }
+
+        synchronized Summary summary(String engineName) {
+            return new Summary(
+                    engineName,
+                    decisions,
+                    positions,
+                    maxDepth,
+                    cacheHits,
+                    nanos,
+                    maxNanos,
+                    phaseNanos);
+        }
+    }
+
+    /**
+     * The totals of the decisions of one engine.
+     *
+     * @param engine The name of the engine.
+     * @param decisions The number of decisions that reported statistics.
+     * @param positions The number of positions evaluated over all decisions.
+     * @param maxDepth The deepest number of moves any decision looked ahead.
+     * @param cacheHits The number of positions and moves answered without evaluating them.
+     * @param nanos The time taken by all decisions.
+     * @param maxNanos The time taken by the slowest decision.
+     * @param phaseNanos The time spent in each phase of the search over all decisions.
+     */
+    public record Summary(
+            String engine,
+            long decisions,
+            long positions,
+            int maxDepth,
+            long cacheHits,
+            long nanos,
+            long maxNanos,
+            Map<String, Long> phaseNanos) {
+        public Summary {
+            phaseNanos = Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos));
+        }
+
+        /**
+         * Get the mean number of positions a decision evaluated.
+         *
+         * @return The mean, 0 if there were no decisions.
+         */
+        public double meanPositions() {
+            return decisions > 0 ? (double) positions / decisions : 0;
+        }
+
+        /**
+         * Get the number of positions evaluated per second spent deciding, which tells how
+         * efficiently the engine searches regardless of how much it searches.
+         *
+         * @return The positions per second, 0 if no time was measured.
+         */
+        public double positionsPerSecond() {
+            return nanos > 0 ? positions * 1e9 / nanos : 0;
+        }
+    }
+}
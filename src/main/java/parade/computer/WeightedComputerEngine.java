@@ -0,0 +1,276 @@
+package parade.computer;
+
+import parade.card.Card;
+import parade.card.Colour;
+import parade.player.Player;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.PlayCardData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The WeightedComputerEngine class is a heuristic engine whose behaviour is entirely driven by a
+ * vector of numeric weights. Every candidate card is described by a handful of features, such as
+ * the value of the cards it takes from the parade, and the card with the lowest weighted sum is
+ * played. The weights are meant to be tuned by self-play rather than by hand.
+ *
+ * <p>The features of playing a card, in weight order, are:
+ *
+ * <ol>
+ *   <li>the sum of the numbers of the cards taken from the parade,
+ *   <li>the number of cards taken from the parade,
+ *   <li>the number of taken cards in colours the player holds the majority of, which only score 1,
+ *   <li>the number on the played card,
+ *   <li>the length of the parade after the card is placed,
+ *   <li>the average value each opponent would take on their next turn. Without an opponent model
+ *       this is the lowest value they could take, assuming the opponent plays their best reply.
+ *       With an {@link OpponentModel} attached it is the expected value they take, with each of
+ *       their replies weighted by how likely that opponent is to play it.
+ * </ol>
+ *
+ * <p>The features of discarding a card, in weight order after the ones above, are:
+ *
+ * <ol start="7">
+ *   <li>the number on the discarded card,
+ *   <li>the number of cards of the same colour already on the player's board.
+ * </ol>
+ *
+ * <p>The search of each decision is reported in two phases, {@code setup} for counting the colours
+ * on the boards and {@code candidates} for scoring every card in hand along with the replies of
+ * the opponents to it.
+ */
+public class WeightedComputerEngine implements ComputerEngine {
+    public static final int WEIGHT_COUNT = 8;
+
+    private static final double[] DEFAULT_WEIGHTS = {1.0, 0.5, -0.5, 0.1, 0.0, -0.5, -1.0, 0.5};
+
+    private final double[] weights;
+    private final ThreadLocal<SearchStats> lastSearchStats = new ThreadLocal<>();
+    private volatile OpponentModel opponentModel;
+
+    public WeightedComputerEngine() {
+        this(DEFAULT_WEIGHTS);
+    }
+
+    /**
+     * Constructs an engine with the given weights.
+     *
+     * @param weights The weights of each feature, see the class documentation for the order.
+     * @throws IllegalArgumentException if the number of weights does not match the features.
+     */
+    public WeightedComputerEngine(double[] weights) {
+        if (weights.length != WEIGHT_COUNT) {
+            throw new IllegalArgumentException("Expected " + WEIGHT_COUNT + " weights");
+        }
+        this.weights = weights.clone();
+    }
+
+    public static double[] getDefaultWeights() {
+        return DEFAULT_WEIGHTS.clone();
+    }
+
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    @Override
+    public void setOpponentModel(OpponentModel opponentModel) {
+        this.opponentModel = opponentModel;
+    }
+
+    @Override
+    public Card process(Player player, PlayCardData playCardData) {
+        return process(player, playCardData, opponentModel);
+    }
+
+    @Override
+    public Card process(Player player, PlayCardData playCardData, OpponentModel model) {
+        long start = System.nanoTime();
+        List<Card> parade = playCardData.getParade().getCards();
+        List<Player> opponents = new ArrayList<>();
+        for (AbstractPlayerController controller : playCardData.getOtherPlayers()) {
+            if (!controller.getPlayer().equals(player)) {
+                opponents.add(controller.getPlayer());
+            }
+        }
+        int[] maxOpponentColours = maxColourCounts(opponents);
+        int[] ownColours = colourCounts(player.getBoard());
+        int majorityMargin = opponents.size() == 1 ? 2 : 1;
+
+        double[] probabilities = model == null ? null : new double[maxHandSize(opponents)];
+        long setupNanos = System.nanoTime() - start;
+        long replies = 0;
+        for (Player opponent : opponents) {
+            replies += opponent.getHand().size();
+        }
+
+        Card bestCard = player.getHand().get(0);
+        double bestScore = Double.MAX_VALUE;
+        List<Card> remaining = new ArrayList<>(parade.size() + 1);
+        for (Card candidate : player.getHand()) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Cancelled, see ComputerEngine.process
+                break;
+            }
+            remaining.clear();
+            int takenValue = 0;
+            int takenCount = 0;
+            int[] takenColours = new int[Colour.values().length];
+            int removeZone = parade.size() - candidate.getNumber();
+            for (int i = 0; i < parade.size(); i++) {
+                Card card = parade.get(i);
+                if (i < removeZone && takes(candidate, card)) {
+                    takenValue += card.getNumber();
+                    takenCount++;
+                    takenColours[card.getColour().ordinal()]++;
+                } else {
+                    remaining.add(card);
+                }
+            }
+            remaining.add(candidate);
+
+            int majorityTaken = 0;
+            for (int colour = 0; colour < takenColours.length; colour++) {
+                int count = ownColours[colour] + takenColours[colour];
+                if (takenColours[colour] > 0
+                        && count - maxOpponentColours[colour] >= majorityMargin) {
+                    majorityTaken += takenColours[colour];
+                }
+            }
+
+            double opponentTake = 0;
+            for (Player opponent : opponents) {
+                opponentTake +=
+                        model == null
+                                ? lowestTakenValue(remaining, opponent.getHand())
+                                : expectedTakenValue(model, opponent, remaining, probabilities);
+            }
+            if (!opponents.isEmpty()) {
+                opponentTake /= opponents.size();
+            }
+
+            double score =
+                    weights[0] * takenValue
+                            + weights[1] * takenCount
+                            + weights[2] * majorityTaken
+                            + weights[3] * candidate.getNumber()
+                            + weights[4] * remaining.size()
+                            + weights[5] * opponentTake;
+            if (score < bestScore) {
+                bestScore = score;
+                bestCard = candidate;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        phaseNanos.put("setup", setupNanos);
+        phaseNanos.put("candidates", nanos - setupNanos);
+        int handSize = player.getHand().size();
+        lastSearchStats.set(
+                new SearchStats(
+                        handSize + handSize * replies,
+                        replies > 0 ? 2 : 1,
+                        0,
+                        nanos,
+                        phaseNanos));
+        return bestCard;
+    }
+
+    @Override
+    public SearchStats getLastSearchStats() {
+        return lastSearchStats.get();
+    }
+
+    @Override
+    public Card discardCard(Player player, PlayCardData playCardData) {
+        int[] ownColours = colourCounts(player.getBoard());
+        Card bestCard = player.getHand().get(0);
+        double bestScore = Double.MAX_VALUE;
+        for (Card candidate : player.getHand()) {
+            // Discarded cards are the ones that do not score, so prefer the most expensive ones
+            double score =
+                    weights[6] * candidate.getNumber()
+                            + weights[7] * ownColours[candidate.getColour().ordinal()];
+            if (score < bestScore) {
+                bestScore = score;
+                bestCard = candidate;
+            }
+        }
+        return bestCard;
+    }
+
+    private static boolean takes(Card placed, Card card) {
+        return card.getNumber() <= placed.getNumber() || card.getColour() == placed.getColour();
+    }
+
+    private static int lowestTakenValue(List<Card> parade, List<Card> hand) {
+        int lowest = Integer.MAX_VALUE;
+        for (Card candidate : hand) {
+            lowest = Math.min(lowest, takenValue(parade, candidate));
+        }
+        return lowest == Integer.MAX_VALUE ? 0 : lowest;
+    }
+
+    private static double expectedTakenValue(
+            OpponentModel model, Player opponent, List<Card> parade, double[] probabilities) {
+        List<Card> hand = opponent.getHand();
+        model.replyProbabilities(opponent.getName(), hand, parade, probabilities);
+        double expected = 0;
+        for (int i = 0; i < hand.size(); i++) {
+            expected += probabilities[i] * takenValue(parade, hand.get(i));
+        }
+        return expected;
+    }
+
+    private static int takenValue(List<Card> parade, Card placed) {
+        int value = 0;
+        int removeZone = parade.size() - placed.getNumber();
+        for (int i = 0; i < removeZone; i++) {
+            if (takes(placed, parade.get(i))) {
+                value += parade.get(i).getNumber();
+            }
+        }
+        return value;
+    }
+
+    private static int maxHandSize(List<Player> players) {
+        int max = 0;
+        for (Player player : players) {
+            max = Math.max(max, player.getHand().size());
+        }
+        return max;
+    }
+
+    private static int[] colourCounts(List<Card> cards) {
+        int[] counts = new int[Colour.values().length];
+        for (Card card : cards) {
+            counts[card.getColour().ordinal()]++;
+        }
+        return counts;
+    }
+
+    private static int[] maxColourCounts(List<Player> players) {
+        int[] max = new int[Colour.values().length];
+        for (Player player : players) {
+            int[] counts = colourCounts(player.getBoard());
+            for (int i = 0; i < max.length; i++) {
+                max[i] = Math.max(max[i], counts[i]);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String getName() {
+        return "Weighted Computer";
+    }
+
+    @Override
+    public String toString() {
+        return "WeightedComputerEngine{weights=" + Arrays.toString(weights) + '}';
+    }
+}
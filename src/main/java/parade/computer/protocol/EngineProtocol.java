@@ -0,0 +1,233 @@
+package parade.computer.protocol;
+
+import parade.card.Card;
+import parade.card.Colour;
+import parade.card.Parade;
+import parade.player.Player;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.PlayCardData;
+import parade.player.controller.SnapshotController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The EngineProtocol class defines the line based protocol spoken between the game and a computer
+ * engine running in a separate process, in the spirit of UCI for chess. Every message is a single
+ * line of space separated tokens, the game writes to the engine's stdin and the engine answers on
+ * its stdout.
+ *
+ * <p>Game to engine:
+ *
+ * <ul>
+ *   <li>{@code parade} - handshake, the engine answers with {@code id name <name>} followed by
+ *       {@code paradeok}.
+ *   <li>{@code isready} - the engine answers with {@code readyok} once it is idle.
+ *   <li>{@code position deck <size> self <seat> parade <cards> hands <cards>|<cards>|... boards
+ *       <cards>|<cards>|...} - sets the position to decide on. Hands and boards are listed per seat
+ *       in turn order, and the engine plays for the player at {@code self}.
+ *   <li>{@code go play} or {@code go discard} - the engine answers with {@code bestcard <card>}.
+ *   <li>{@code quit} - the engine exits.
+ * </ul>
+ *
+ * <p>A card is encoded as its number followed by the first letter of its colour, with {@code K}
+ * for black, for example {@code 7R} or {@code 10K}. A list of cards is comma separated, and an
+ * empty list is written as {@code -}. An engine that cannot handle a command answers with {@code
+ * error <message>}.
+ */
+public final class EngineProtocol {
+    public static final String HANDSHAKE = "parade";
+    public static final String HANDSHAKE_OK = "paradeok";
+    public static final String ID_NAME = "id name";
+    public static final String IS_READY = "isready";
+    public static final String READY_OK = "readyok";
+    public static final String POSITION = "position";
+    public static final String GO_PLAY = "go play";
+    public static final String GO_DISCARD = "go discard";
+    public static final String BEST_CARD = "bestcard";
+    public static final String ERROR = "error";
+    public static final String QUIT = "quit";
+
+    private static final String EMPTY = "-";
+    private static final String SEAT_SEPARATOR = "|";
+    private static final String SEAT_NAME_PREFIX = "seat";
+
+    private EngineProtocol() {}
+
+    /**
+     * Encodes the position seen by the given player into a {@code position} command.
+     *
+     * @param self The player the engine decides for, must be one of the players in the game state.
+     * @param playCardData The game state.
+     * @return The {@code position} command line.
+     * @throws IllegalArgumentException if the player is not part of the game state.
+     */
+    public static String encodePosition(Player self, PlayCardData playCardData) {
+        List<AbstractPlayerController> seats = playCardData.getOtherPlayers();
+        int selfSeat = -1;
+        StringBuilder hands = new StringBuilder();
+        StringBuilder boards = new StringBuilder();
+        for (int i = 0; i < seats.size(); i++) {
+            Player player = seats.get(i).getPlayer();
+            if (player.equals(self)) {
+                selfSeat = i;
+            }
+            if (i > 0) {
+                hands.append(SEAT_SEPARATOR);
+                boards.append(SEAT_SEPARATOR);
+            }
+            hands.append(encodeCards(player.getHand()));
+            boards.append(encodeCards(player.getBoard()));
+        }
+        if (selfSeat < 0) {
+            throw new IllegalArgumentException("Player is not part of the game state");
+        }
+
+        return POSITION
+                + " deck "
+                + playCardData.getDeckSize()
+                + " self "
+                + selfSeat
+                + " parade "
+                + encodeCards(playCardData.getParade().getCards())
+                + " hands "
+                + hands
+                + " boards "
+                + boards;
+    }
+
+    /**
+     * Decodes a {@code position} command into a game state made out of snapshot players. Players
+     * are named after their seat as the protocol does not carry names.
+     *
+     * @param line The {@code position} command line.
+     * @return The decoded position.
+     * @throws IllegalArgumentException if the line is not a valid {@code position} command.
+     */
+    public static Position decodePosition(String line) {
+        String[] tokens = line.trim().split(" ");
+        if (tokens.length != 11
+                || !tokens[0].equals(POSITION)
+                || !tokens[1].equals("deck")
+                || !tokens[3].equals("self")
+                || !tokens[5].equals("parade")
+                || !tokens[7].equals("hands")
+                || !tokens[9].equals("boards")) {
+            throw new IllegalArgumentException("Malformed position: " + line);
+        }
+
+        int deckSize = Integer.parseInt(tokens[2]);
+        int selfSeat = Integer.parseInt(tokens[4]);
+        String[] hands = tokens[8].split("\\" + SEAT_SEPARATOR, -1);
+        String[] boards = tokens[10].split("\\" + SEAT_SEPARATOR, -1);
+        if (hands.length != boards.length || selfSeat < 0 || selfSeat >= hands.length) {
+            throw new IllegalArgumentException("Malformed seats in position: " + line);
+        }
+
+        List<AbstractPlayerController> controllers = new ArrayList<>(hands.length);
+        for (int i = 0; i < hands.length; i++) {
+            Player player = new Player(SEAT_NAME_PREFIX + i);
+            List<Card> hand = decodeCards(hands[i]);
+            if (!hand.isEmpty()) {
+                player.addToHand(hand.toArray(Card[]::new));
+            }
+            List<Card> board = decodeCards(boards[i]);
+            if (!board.isEmpty()) {
+                player.addToBoard(board.toArray(Card[]::new));
+            }
+            controllers.add(new SnapshotController(player));
+        }
+
+        Parade parade = Parade.restore(decodeCards(tokens[6]));
+        PlayCardData playCardData = new PlayCardData(controllers, parade, deckSize);
+        return new Position(controllers.get(selfSeat).getPlayer(), playCardData);
+    }
+
+    public static String encodeCard(Card card) {
+        return card.getNumber() + colourCode(card.getColour());
+    }
+
+    /**
+     * Decodes a single card.
+     *
+     * @param token The encoded card, such as {@code 7R}.
+     * @return The decoded card.
+     * @throws IllegalArgumentException if the token is not a valid card.
+     */
+    public static Card decodeCard(String token) {
+        if (token.length() < 2) {
+            throw new IllegalArgumentException("Malformed card: " + token);
+        }
+        int number;
+        try {
+            number = Integer.parseInt(token.substring(0, token.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed card: " + token, e);
+        }
+        if (number < 0 || number > 10) {
+            throw new IllegalArgumentException("Card number out of range: " + token);
+        }
+        String code = token.substring(token.length() - 1);
+        for (Colour colour : Colour.values()) {
+            if (colourCode(colour).equals(code)) {
+                return new Card(number, colour);
+            }
+        }
+        throw new IllegalArgumentException("Unknown card colour: " + token);
+    }
+
+    /**
+     * Finds the card with the same number and colour in the given list. Cards decoded from the
+     * protocol are new instances, so they have to be matched back to the actual cards in play.
+     *
+     * @param cards The cards to search in.
+     * @param card The card to look for.
+     * @return The matching card from the list, or null if there is none.
+     */
+    public static Card findCard(List<Card> cards, Card card) {
+        for (Card candidate : cards) {
+            if (candidate.getNumber() == card.getNumber()
+                    && candidate.getColour() == card.getColour()) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static String encodeCards(List<Card> cards) {
+        if (cards.isEmpty()) {
+            return EMPTY;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Card card : cards) {
+            if (!sb.isEmpty()) {
+                sb.append(',');
+            }
+            sb.append(encodeCard(card));
+        }
+        return sb.toString();
+    }
+
+    private static List<Card> decodeCards(String token) {
+        List<Card> cards = new ArrayList<>();
+        if (token.equals(EMPTY)) {
+            return cards;
+        }
+        for (String cardToken : token.split(",")) {
+            cards.add(decodeCard(cardToken));
+        }
+        return cards;
+    }
+
+    private static String colourCode(Colour colour) {
+        return colour == Colour.BLACK ? "K" : colour.name().substring(0, 1);
+    }
+
+    /**
+     * A decoded position, the player the engine plays for and the game state around it.
+     *
+     * @param self The player the engine plays for.
+     * @param playCardData The game state.
+     */
+    public record Position(Player self, PlayCardData playCardData) {}
+}
@@ -0,0 +1,89 @@
+package parade.computer.protocol;
+
+import parade.card.Card;
+import parade.computer.ComputerEngine;
+import parade.computer.ComputerEngines;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The EngineWorker class is the entry point of an engine process. It loads the computer engine
+ * named on the command line and serves {@link EngineProtocol} requests on stdin and stdout until
+ * it is told to quit or its stdin is closed.
+ *
+ * <p>Usage: {@code java -cp parade-game.jar parade.computer.protocol.EngineWorker
+ * parade.computer.HardComputerEngine}
+ */
+public class EngineWorker {
+    private final ComputerEngine engine;
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private EngineProtocol.Position position;
+
+    EngineWorker(ComputerEngine engine, BufferedReader in, PrintWriter out) {
+        this.engine = engine;
+        this.in = in;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: EngineWorker <computer engine class name>");
+            System.exit(2);
+        }
+        ComputerEngine engine = ComputerEngines.load(args[0]);
+        BufferedReader in =
+                new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(System.out, false, StandardCharsets.UTF_8);
+        new EngineWorker(engine, in, out).serve();
+    }
+
+    void serve() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.equals(EngineProtocol.QUIT)) {
+                return;
+            }
+            try {
+                handle(line);
+            } catch (RuntimeException e) {
+                reply(EngineProtocol.ERROR + " " + e);
+            }
+        }
+    }
+
+    private void handle(String line) {
+        if (line.equals(EngineProtocol.HANDSHAKE)) {
+            out.println(EngineProtocol.ID_NAME + " " + engine.getName());
+            reply(EngineProtocol.HANDSHAKE_OK);
+        } else if (line.equals(EngineProtocol.IS_READY)) {
+            reply(EngineProtocol.READY_OK);
+        } else if (line.startsWith(EngineProtocol.POSITION + " ")) {
+            position = EngineProtocol.decodePosition(line);
+        } else if (line.equals(EngineProtocol.GO_PLAY) || line.equals(EngineProtocol.GO_DISCARD)) {
+            if (position == null) {
+                throw new IllegalStateException("No position set");
+            }
+            Card card =
+                    line.equals(EngineProtocol.GO_PLAY)
+                            ? engine.process(position.self(), position.playCardData())
+                            : engine.discardCard(position.self(), position.playCardData());
+            reply(EngineProtocol.BEST_CARD + " " + EngineProtocol.encodeCard(card));
+        } else {
+            throw new IllegalArgumentException("Unknown command: " + line);
+        }
+    }
+
+    private void reply(String line) {
+        out.println(line);
+        out.flush();
+    }
+}
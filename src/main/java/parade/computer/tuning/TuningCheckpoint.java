@@ -0,0 +1,103 @@
+package parade.computer.tuning;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The TuningCheckpoint class is the state of a {@link WeightTuner} run that is saved to disk after
+ * every generation, so that an interrupted run can be resumed where it stopped.
+ */
+public class TuningCheckpoint {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private int generation;
+    private long seed;
+    private double[][] population;
+
+    @SerializedName(value = "best_weights")
+    private double[] bestWeights;
+
+    @SerializedName(value = "best_fitness")
+    private double bestFitness;
+
+    public TuningCheckpoint(
+            int generation,
+            long seed,
+            double[][] population,
+            double[] bestWeights,
+            double bestFitness) {
+        this.generation = generation;
+        this.seed = seed;
+        this.population = population;
+        this.bestWeights = bestWeights;
+        this.bestFitness = bestFitness;
+    }
+
+    /**
+     * Loads a checkpoint from disk.
+     *
+     * @param path The path of the checkpoint file.
+     * @return The checkpoint, or null if the file does not exist.
+     * @throws IOException if the file cannot be read.
+     */
+    public static TuningCheckpoint load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, TuningCheckpoint.class);
+        }
+    }
+
+    /**
+     * Saves the checkpoint to disk. The checkpoint is written to a temporary file first and then
+     * moved in place, so a crash while saving never leaves a corrupted checkpoint behind.
+     *
+     * @param path The path of the checkpoint file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        Path parentDir = path.toAbsolutePath().getParent();
+        if (parentDir != null && !Files.exists(parentDir)) {
+            Files.createDirectories(parentDir);
+        }
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+        Files.move(
+                tempPath,
+                path,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double[][] getPopulation() {
+        return population;
+    }
+
+    public double[] getBestWeights() {
+        return bestWeights;
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+}
@@ -0,0 +1,255 @@
+package parade.computer.tuning;
+
+import parade.computer.ComputerEngine;
+import parade.computer.ComputerEngines;
+import parade.computer.WeightedComputerEngine;
+import parade.core.SimulatedGameEngine;
+import parade.core.SimulationResult;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.NopLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The WeightTuner class tunes the weights of a {@link WeightedComputerEngine} by self-play with a
+ * simple genetic algorithm.
+ *
+ * <p>Every generation, each candidate plays the same block of seeded games against the opponent
+ * engines, so all candidates face the exact same deals and the comparison between them is not
+ * drowned in the luck of the draw. Opponents that play at random are created for every game and
+ * seeded from its seed and their seat, so they make the same choices against every candidate.
+ * Candidates are evaluated concurrently, one per thread, and the fitness of a candidate is how many
+ * points fewer it scores than the average opponent.
+ *
+ * <p>The next generation keeps the best candidates as they are, and fills the rest with children
+ * of tournament-selected parents through uniform crossover and gaussian mutation. The population
+ * is checkpointed to disk after every generation and a run resumes from its checkpoint.
+ *
+ * <p>Usage: {@code java -cp parade-game.jar parade.computer.tuning.WeightTuner [--population 24]
+ * [--generations 50] [--games 200] [--opponents parade.computer.HardComputerEngine] [--threads n]
+ * [--seed 0] [--checkpoint tuning/checkpoint.json]}
+ */
+public class WeightTuner {
+    private static final int ELITES = 2;
+    private static final int TOURNAMENT_SIZE = 3;
+    private static final double MUTATION_RATE = 0.3;
+    private static final double MUTATION_STDDEV = 0.25;
+    private static final double INITIAL_STDDEV = 0.5;
+    private static final int MAX_PLAYERS = 6;
+
+    private final int populationSize;
+    private final int generations;
+    private final int gamesPerCandidate;
+    private final List<String> opponents;
+    private final int threads;
+    private final long seed;
+    private final Path checkpointPath;
+
+    public WeightTuner(
+            int populationSize,
+            int generations,
+            int gamesPerCandidate,
+            List<String> opponents,
+            int threads,
+            long seed,
+            Path checkpointPath) {
+        if (populationSize <= ELITES) {
+            throw new IllegalArgumentException("Population must be larger than " + ELITES);
+        }
+        if (opponents.isEmpty()) {
+            throw new IllegalArgumentException("At least one opponent is required");
+        }
+        this.populationSize = populationSize;
+        this.generations = generations;
+        this.gamesPerCandidate = gamesPerCandidate;
+        this.opponents = List.copyOf(opponents);
+        this.threads = threads;
+        this.seed = seed;
+        this.checkpointPath = checkpointPath;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int populationSize = 24;
+        int generations = 50;
+        int games = 200;
+        List<String> opponents = List.of("parade.computer.HardComputerEngine");
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        Path checkpoint = Path.of("tuning", "checkpoint.json");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--population" -> populationSize = Integer.parseInt(args[i + 1]);
+                case "--generations" -> generations = Integer.parseInt(args[i + 1]);
+                case "--games" -> games = Integer.parseInt(args[i + 1]);
+                case "--opponents" -> opponents = Arrays.asList(args[i + 1].split(","));
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--checkpoint" -> checkpoint = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        LoggerProvider.setInstance(new NopLogger());
+
+        TuningCheckpoint result =
+                new WeightTuner(
+                                populationSize,
+                                generations,
+                                games,
+                                opponents,
+                                threads,
+                                seed,
+                                checkpoint)
+                        .run();
+        System.out.printf(
+                "Best weights %s with fitness %.3f%n",
+                Arrays.toString(result.getBestWeights()), result.getBestFitness());
+    }
+
+    /**
+     * Runs the tuner until the configured number of generations, resuming from the checkpoint if
+     * there is one.
+     *
+     * @return The checkpoint of the last generation.
+     * @throws IOException if the checkpoint cannot be read or written.
+     * @throws InterruptedException if interrupted while evaluating candidates.
+     */
+    public TuningCheckpoint run() throws IOException, InterruptedException {
+        TuningCheckpoint checkpoint = TuningCheckpoint.load(checkpointPath);
+        if (checkpoint != null && checkpoint.getSeed() != seed) {
+            throw new IllegalStateException(
+                    "Checkpoint was created with seed " + checkpoint.getSeed());
+        }
+        double[][] population =
+                checkpoint != null ? checkpoint.getPopulation() : initialPopulation();
+        int generation = checkpoint != null ? checkpoint.getGeneration() : 0;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            while (generation < generations) {
+                double[] fitness = evaluate(executor, population, generation);
+                Integer[] ranking = rank(fitness);
+                double[] best = population[ranking[0]];
+                System.out.printf(
+                        "Generation %d: best fitness %.3f %s%n",
+                        generation, fitness[ranking[0]], Arrays.toString(best));
+
+                generation++;
+                population = breed(population, fitness, ranking, generation);
+                checkpoint =
+                        new TuningCheckpoint(
+                                generation, seed, population, best, fitness[ranking[0]]);
+                checkpoint.save(checkpointPath);
+            }
+        }
+        return checkpoint;
+    }
+
+    private double[][] initialPopulation() {
+        Random random = new Random(seed);
+        double[][] population = new double[populationSize][];
+        population[0] = WeightedComputerEngine.getDefaultWeights();
+        for (int i = 1; i < populationSize; i++) {
+            population[i] = WeightedComputerEngine.getDefaultWeights();
+            for (int j = 0; j < population[i].length; j++) {
+                population[i][j] += random.nextGaussian() * INITIAL_STDDEV;
+            }
+        }
+        return population;
+    }
+
+    private double[] evaluate(ExecutorService executor, double[][] population, int generation)
+            throws InterruptedException {
+        // Every candidate of the generation plays the same block of seeds
+        long firstSeed = seed + (long) generation * gamesPerCandidate;
+        List<Future<Double>> futures = new ArrayList<>(population.length);
+        for (double[] weights : population) {
+            futures.add(executor.submit(() -> evaluate(weights, firstSeed)));
+        }
+
+        double[] fitness = new double[population.length];
+        for (int i = 0; i < population.length; i++) {
+            try {
+                fitness[i] = futures.get(i).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Candidate evaluation failed", e.getCause());
+            }
+        }
+        return fitness;
+    }
+
+    private double evaluate(double[] weights, long firstSeed) {
+        ComputerEngine candidate = new WeightedComputerEngine(weights);
+        int seats = opponents.size() + 1;
+        double totalMargin = 0;
+        for (long gameSeed = firstSeed; gameSeed < firstSeed + gamesPerCandidate; gameSeed++) {
+            // Rotate the candidate through the seats so it is not favoured by any one of them
+            int candidateSeat = Math.floorMod(gameSeed, seats);
+            List<ComputerEngine> engines = new ArrayList<>(seats);
+            Iterator<String> opponent = opponents.iterator();
+            for (int seat = 0; seat < seats; seat++) {
+                engines.add(
+                        seat == candidateSeat
+                                ? candidate
+                                : ComputerEngines.load(
+                                        opponent.next(), gameSeed * MAX_PLAYERS + seat));
+            }
+
+            SimulatedGameEngine game = new SimulatedGameEngine(gameSeed, engines);
+            game.start();
+            SimulationResult result = game.getResult();
+
+            double opponentScores = 0;
+            for (int seat = 0; seat < seats; seat++) {
+                if (seat != candidateSeat) {
+                    opponentScores += result.scores()[seat];
+                }
+            }
+            totalMargin += opponentScores / (seats - 1) - result.scores()[candidateSeat];
+        }
+        return totalMargin / gamesPerCandidate;
+    }
+
+    private static Integer[] rank(double[] fitness) {
+        Integer[] ranking = new Integer[fitness.length];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = i;
+        }
+        Arrays.sort(ranking, (a, b) -> Double.compare(fitness[b], fitness[a]));
+        return ranking;
+    }
+
+    private double[][] breed(
+            double[][] population, double[] fitness, Integer[] ranking, int generation) {
+        Random random = new Random(seed * 31 + generation);
+        double[][] next = new double[populationSize][];
+        for (int i = 0; i < ELITES; i++) {
+            next[i] = population[ranking[i]].clone();
+        }
+        for (int i = ELITES; i < populationSize; i++) {
+            double[] mother = population[select(fitness, random)];
+            double[] father = population[select(fitness, random)];
+            double[] child = new double[mother.length];
+            for (int j = 0; j < child.length; j++) {
+                child[j] = random.nextBoolean() ? mother[j] : father[j];
+                if (random.nextDouble() < MUTATION_RATE) {
+                    child[j] += random.nextGaussian() * MUTATION_STDDEV;
+                }
+            }
+            next[i] = child;
+        }
+        return next;
+    }
+
+    private static int select(double[] fitness, Random random) {
+        int best = random.nextInt(fitness.length);
+        for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+            int contender = random.nextInt(fitness.length);
+            if (fitness[contender] > fitness[best]) {
+                best = contender;
+            }
+        }
+        return best;
+    }
+}
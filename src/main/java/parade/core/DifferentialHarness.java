@@ -0,0 +1,485 @@
+package parade.core;
+
+import parade.card.Card;
+import parade.card.Deck;
+import parade.computer.ComputerEngine;
+import parade.computer.OpponentModel;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.NopLogger;
+import parade.player.Player;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.PlayCardData;
+import parade.player.controller.SnapshotController;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The DifferentialHarness class replays a corpus of seeded all-computer games through two
+ * implementations of the {@link GameLogic} side by side, and checks that they agree at every step:
+ * the card every engine chooses to play or discard, the cards every placed card takes from the
+ * parade, and the scores and winners at the end. It is the proof that an optimisation of the rules
+ * or of an engine did not change what the game does.
+ *
+ * <p>Games go through the same sequence as those of {@link SimulatedGameEngine}, which both share,
+ * with the same deck and starting player for the same seed, and are played by the reference. At
+ * every step the candidate is asked the same question on a copy of the same position, and only
+ * compared against. As in a game, every engine has an {@link OpponentModel} of its own, and the
+ * models of the reference and the candidate engines of a seat record the same plays, so a position
+ * is the cards on the table and what the seat has seen of the others. The games are spread over a
+ * pool of threads.
+ *
+ * <p>Once the implementations disagree, the harness stops at the earliest game of the corpus that
+ * diverges, in the order of the player counts and then of the seeds, and reports the first step it
+ * diverged at, the position at that step and a command line replaying only that game.
+ *
+ * <p>Usage: {@code java -cp parade-game.jar parade.core.DifferentialHarness --candidate
+ * com.example.FastGameLogic [--reference parade.core.ReferenceGameLogic] [--games 10000] [--players
+ * 2,4,6] [--seed 0] [--threads 8]}
+ */
+public class DifferentialHarness {
+    private final GameLogic reference;
+    private final GameLogic candidate;
+    private final int games;
+    private final List<Integer> playerCounts;
+    private final long firstSeed;
+    private final int threads;
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder placements = new LongAdder();
+
+    /**
+     * Constructs a harness comparing two implementations over a corpus of games.
+     *
+     * @param reference The implementation that plays the games.
+     * @param candidate The implementation compared against the reference.
+     * @param games The number of games per player count.
+     * @param playerCounts The player counts to play with.
+     * @param firstSeed The seed of the first game of every player count.
+     * @param threads The number of games played at once.
+     * @throws IllegalArgumentException if there are no games, no threads, or a player count is not
+     *     between 2 and 6.
+     */
+    public DifferentialHarness(
+            GameLogic reference,
+            GameLogic candidate,
+            int games,
+            List<Integer> playerCounts,
+            long firstSeed,
+            int threads) {
+        if (games <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Games and threads must be positive");
+        }
+        for (int players : playerCounts) {
+            if (players < AbstractGameEngine.MIN_PLAYERS
+                    || players > AbstractGameEngine.MAX_PLAYERS) {
+                throw new IllegalArgumentException("Players must be between 2 and 6: " + players);
+            }
+        }
+        this.reference = reference;
+        this.candidate = candidate;
+        this.games = games;
+        this.playerCounts = List.copyOf(playerCounts);
+        this.firstSeed = firstSeed;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String referenceClass = ReferenceGameLogic.class.getName();
+        String candidateClass = null;
+        int games = 10_000;
+        List<Integer> playerCounts = List.of(2, 4, 6);
+        long seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--reference" -> referenceClass = args[i + 1];
+                case "--candidate" -> candidateClass = args[i + 1];
+                case "--games" -> games = Integer.parseInt(args[i + 1]);
+                case "--players" ->
+                        playerCounts =
+                                Arrays.stream(args[i + 1].split(","))
+                                        .map(Integer::valueOf)
+                                        .toList();
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (candidateClass == null) {
+            System.err.println(
+                    "Usage: DifferentialHarness --candidate <game logic class name> [--reference"
+                            + " class name] [--games n] [--players n,...] [--seed n] [--threads"
+                            + " n]");
+            System.exit(2);
+        }
+        LoggerProvider.setInstance(new NopLogger());
+
+        long startNanos = System.nanoTime();
+        DifferentialHarness harness =
+                new DifferentialHarness(
+                        load(referenceClass),
+                        load(candidateClass),
+                        games,
+                        playerCounts,
+                        seed,
+                        threads);
+        Divergence divergence = harness.run();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf(
+                "%d decisions and %d parade placements compared in %.2fs%n",
+                harness.getDecisions(), harness.getPlacements(), seconds);
+        if (divergence == null) {
+            System.out.printf(
+                    "%s and %s agree on all %d games%n",
+                    referenceClass, candidateClass, games * playerCounts.size());
+            return;
+        }
+        System.out.print(divergence);
+        System.out.printf(
+                "Replay: java -cp parade-game.jar %s --reference %s --candidate %s --games 1"
+                        + " --players %d --seed %d --threads 1%n",
+                DifferentialHarness.class.getName(),
+                referenceClass,
+                candidateClass,
+                divergence.players(),
+                divergence.seed());
+        System.exit(1);
+    }
+
+    /**
+     * Creates a game logic from its class name using its public no-arg constructor.
+     *
+     * @param className The fully qualified class name of the game logic.
+     * @return A new instance of the game logic.
+     * @throws IllegalArgumentException if the class is not a game logic or cannot be created.
+     */
+    public static GameLogic load(String className) {
+        try {
+            return Class.forName(className)
+                    .asSubclass(GameLogic.class)
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ClassNotFoundException
+                | ClassCastException
+                | NoSuchMethodException
+                | InstantiationException
+                | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new IllegalArgumentException("Cannot load game logic: " + className, e);
+        }
+    }
+
+    /**
+     * Plays the corpus on the pool of threads, until every game is compared or a game diverges.
+     *
+     * @return The first divergence of the earliest diverging game, or null if the implementations
+     *     agree on every game.
+     * @throws InterruptedException if interrupted while waiting for the games.
+     */
+    public Divergence run() throws InterruptedException {
+        int total = games * playerCounts.size();
+        AtomicInteger nextGame = new AtomicInteger();
+        // Games are taken in corpus order, so once a game diverges only the earlier games still
+        // being played can replace it as the earliest divergence
+        AtomicInteger firstDivergentGame = new AtomicInteger(Integer.MAX_VALUE);
+        Map<Integer, Divergence> divergences = new ConcurrentHashMap<>();
+
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                workers.add(
+                        executor.submit(
+                                () -> {
+                                    int game;
+                                    while ((game = nextGame.getAndIncrement()) < total
+                                            && game < firstDivergentGame.get()) {
+                                        Divergence divergence = play(game);
+                                        if (divergence != null) {
+                                            divergences.put(game, divergence);
+                                            firstDivergentGame.accumulateAndGet(game, Math::min);
+                                        }
+                                    }
+                                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Differential game failed", e.getCause());
+        }
+        return divergences.get(firstDivergentGame.get());
+    }
+
+    public long getDecisions() {
+        return decisions.sum();
+    }
+
+    public long getPlacements() {
+        return placements.sum();
+    }
+
+    private Divergence play(int game) {
+        int players = playerCounts.get(game / games);
+        long seed = firstSeed + game % games;
+        DifferentialGame differentialGame = new DifferentialGame(seed, players);
+        differentialGame.start();
+        return differentialGame.divergence;
+    }
+
+    private static boolean sameCard(Card a, Card b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getNumber() == b.getNumber() && a.getColour() == b.getColour();
+    }
+
+    private static boolean sameCards(List<Card> a, List<Card> b) {
+        if (a == null || b == null || a.size() != b.size()) {
+            return a == b;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!sameCard(a.get(i), b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String format(Card card) {
+        return card == null ? "null" : card.getNumber() + " " + card.getColour();
+    }
+
+    private static String format(List<Card> cards) {
+        if (cards == null) {
+            return "null";
+        }
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (Card card : cards) {
+            joiner.add(format(card));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * A game played by the reference, with the candidate compared at every step. Seats are held by
+     * snapshot controllers, which never take a turn themselves, the engines are asked directly.
+     */
+    private final class DifferentialGame extends HeadlessGameEngine {
+        private final long seed;
+        private final List<AbstractPlayerController> seats = new ArrayList<>();
+        private final List<ComputerEngine> referenceEngines = new ArrayList<>();
+        private final List<ComputerEngine> candidateEngines = new ArrayList<>();
+        private final List<OpponentModel> referenceModels = new ArrayList<>();
+        private final List<OpponentModel> candidateModels = new ArrayList<>();
+        private int turns;
+        // The step running and the seat running it, reported if the step throws
+        private String step = "deal";
+        private int stepSeat = -1;
+        private Divergence divergence;
+
+        DifferentialGame(long seed, int players) {
+            super(new Random(seed));
+            this.seed = seed;
+            for (int i = 0; i < players; i++) {
+                SnapshotController seat = new SnapshotController(new Player("Seat " + i));
+                seats.add(seat);
+                playerControllerManager.add(seat);
+                referenceEngines.add(newEngine(reference, referenceModels));
+                candidateEngines.add(newEngine(candidate, candidateModels));
+            }
+        }
+
+        /** Creates the engine of a seat with a model of its own, as a computer controller does. */
+        private ComputerEngine newEngine(GameLogic logic, List<OpponentModel> models) {
+            ComputerEngine engine = logic.newEngine();
+            OpponentModel model = new OpponentModel();
+            engine.setOpponentModel(model);
+            models.add(model);
+            return engine;
+        }
+
+        @Override
+        public void start() {
+            try {
+                if (playToScoring()) {
+                    compareScores();
+                }
+            } catch (RuntimeException e) {
+                diverge(stepSeat, step + " threw", "no exception", e.toString());
+            }
+        }
+
+        private void compareScores() {
+            stepSeat = -1;
+            step = "scores";
+            List<List<Card>> boards = new ArrayList<>();
+            for (AbstractPlayerController seat : seats) {
+                boards.add(seat.getPlayer().getBoard());
+            }
+            int[] scores = reference.scores(boards);
+            int[] candidateScores = candidate.scores(boards);
+            if (!Arrays.equals(scores, candidateScores)) {
+                diverge(-1, step, Arrays.toString(scores), Arrays.toString(candidateScores));
+                return;
+            }
+            step = "winners";
+            int winners = reference.winnerMask(boards, scores);
+            int candidateWinners = candidate.winnerMask(boards, scores);
+            if (winners != candidateWinners) {
+                diverge(
+                        -1,
+                        step,
+                        Integer.toBinaryString(winners),
+                        Integer.toBinaryString(candidateWinners));
+            }
+        }
+
+        @Override
+        boolean playTurn(AbstractPlayerController controller, boolean drawCard) {
+            Card card = decide(controller, false);
+            if (card == null) {
+                return false;
+            }
+            step = "parade, placing " + format(card);
+            List<Card> paradeCards = List.copyOf(parade.getCards());
+            List<Card> taken = reference.removedCards(paradeCards, card);
+            List<Card> candidateTaken = candidate.removedCards(paradeCards, card);
+            placements.increment();
+            if (!sameCards(taken, candidateTaken)) {
+                diverge(stepSeat, step, format(taken), format(candidateTaken));
+                return false;
+            }
+
+            controller.getPlayer().removeFromHand(card);
+            controller.receiveFromParade(parade.placeCard(card).toArray(Card[]::new));
+            // Every other seat sees the play, as computer controllers do in a game
+            String mover = controller.getPlayer().getName();
+            for (int seat = 0; seat < seats.size(); seat++) {
+                if (seat != stepSeat) {
+                    referenceModels
+                            .get(seat)
+                            .recordPlay(mover, paradeCards.size(), card, taken.size());
+                    candidateModels
+                            .get(seat)
+                            .recordPlay(mover, paradeCards.size(), card, taken.size());
+                }
+            }
+            if (drawCard) {
+                step = "draw";
+                controller.draw(deck.pop());
+            }
+            turns++;
+            return true;
+        }
+
+        @Override
+        boolean discardCard(AbstractPlayerController controller) {
+            Card card = decide(controller, true);
+            if (card == null) {
+                return false;
+            }
+            controller.getPlayer().removeFromHand(card);
+            return true;
+        }
+
+        /**
+         * Asks both engines of the seat for the card to play or discard, each on its own copy of
+         * the position.
+         *
+         * @return The card of the reference in the seat's hand, or null if the engines disagree.
+         */
+        private Card decide(AbstractPlayerController controller, boolean discard) {
+            int seat = seats.indexOf(controller);
+            String decision = discard ? "discard" : "play";
+            stepSeat = seat;
+            step = decision + ", reference engine";
+            Card card =
+                    choose(referenceEngines.get(seat), referenceModels.get(seat), seat, discard);
+            step = decision + ", candidate engine";
+            Card candidateCard =
+                    choose(candidateEngines.get(seat), candidateModels.get(seat), seat, discard);
+            decisions.increment();
+            if (!sameCard(card, candidateCard)) {
+                diverge(seat, decision, format(card), format(candidateCard));
+                return null;
+            }
+            // Snapshots share their cards with the game, so the card is the one in the hand
+            return card;
+        }
+
+        private Card choose(ComputerEngine engine, OpponentModel model, int seat, boolean discard) {
+            PlayCardData position =
+                    SnapshotController.snapshot(
+                            new PlayCardData(
+                                    playerControllerManager.getPlayerControllers(),
+                                    parade,
+                                    deck.size()));
+            Player self = position.getOtherPlayers().get(seat).getPlayer();
+            return discard
+                    ? engine.discardCard(self, position)
+                    : engine.process(self, position, model);
+        }
+
+        private void diverge(int seat, String step, String expected, String actual) {
+            StringBuilder position = new StringBuilder();
+            position.append("  parade ").append(format(parade.getCards()));
+            position.append(", deck ").append(deck.size()).append(" cards").append('\n');
+            for (int i = 0; i < seats.size(); i++) {
+                Player player = seats.get(i).getPlayer();
+                position.append(
+                        String.format(
+                                "  seat %d hand %s board %s%n",
+                                i, format(player.getHand()), format(player.getBoard())));
+            }
+            divergence =
+                    new Divergence(
+                            seed,
+                            seats.size(),
+                            turns,
+                            seat,
+                            step,
+                            position.toString(),
+                            expected,
+                            actual);
+        }
+    }
+
+    /**
+     * The first step at which the candidate disagreed with the reference in a game.
+     *
+     * @param seed The seed of the game.
+     * @param players The number of players of the game.
+     * @param turn The number of turns played before the step.
+     * @param seat The seat deciding or placing a card, -1 for the deal and the end of the game.
+     * @param step What was compared, such as {@code play}, {@code discard}, {@code parade} or
+     *     {@code scores}, or the step that threw an exception, with the engine that threw it.
+     * @param position The parade, the deck size and every seat's hand and board at the step.
+     * @param expected The answer of the reference.
+     * @param actual The answer of the candidate.
+     */
+    public record Divergence(
+            long seed,
+            int players,
+            int turn,
+            int seat,
+            String step,
+            String position,
+            String expected,
+            String actual) {
+        @Override
+        public String toString() {
+            return String.format(
+                    "Divergence in the game of seed %d with %d players, after %d turns, seat %d,"
+                            + " %s%n"
+                            + "%s  reference: %s%n  candidate: %s%n",
+                    seed, players, turn, seat, step, position, expected, actual);
+        }
+    }
+}
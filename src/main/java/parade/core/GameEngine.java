@@ -2,23 +2,45 @@ package parade.core;
 
 import parade.card.Card;
 import parade.computer.ComputerEngine;
+import parade.computer.ProcessComputerEngine;
 import parade.core.result.*;
 import parade.exception.MenuCancelledException;
 import parade.logger.AbstractLogger;
+import parade.logger.CallSite;
+import parade.logger.LogContext;
+import parade.logger.LogEvent;
+import parade.logger.LogLevel;
 import parade.logger.LoggerProvider;
 import parade.menu.manager.*;
 import parade.menu.option.LobbyMenuOption;
+import parade.metrics.AllocationTracker;
+import parade.metrics.Histogram;
+import parade.metrics.MetricsRegistry;
+import parade.metrics.jfr.TurnEvent;
+import parade.metrics.trace.TraceRecorder;
 import parade.player.Player;
 import parade.player.controller.*;
 import parade.setting.Setting;
 import parade.setting.SettingKey;
 import parade.utils.Ansi;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 public class GameEngine extends AbstractGameEngine {
+    private static final CallSite CALL_SITE = CallSite.of(GameEngine.class);
+    private static final Histogram DEAL_TIME = MetricsRegistry.get().histogram("game.deal");
+    private static final Histogram TURN_TIME = MetricsRegistry.get().histogram("game.turn");
+    private static final Histogram FINAL_ROUND_TIME =
+            MetricsRegistry.get().histogram("game.final_round");
+    private static final Histogram DISCARD_TIME = MetricsRegistry.get().histogram("game.discard");
+    private static final Histogram SCORE_TIME = MetricsRegistry.get().histogram("game.score");
+
     private final AbstractLogger logger;
     private final MenuManager menuManager;
+    private final List<ProcessComputerEngine> processEngines = new ArrayList<>();
+    private int turn;
 
     public GameEngine() {
         logger = LoggerProvider.getInstance();
@@ -27,25 +49,26 @@ public class GameEngine extends AbstractGameEngine {
 
     private void addPlayerController(AbstractPlayerController player) {
         playerControllerManager.add(player);
-        logger.logf("Player %s added to the game", player.getPlayer().getName());
+        logger.logf(CALL_SITE, "Player %s added to the game", player.getPlayer().getName());
     }
 
     private void removePlayerController(AbstractPlayerController controller) {
         boolean isRemoved = playerControllerManager.remove(controller);
         logger.logf(
+                CALL_SITE,
                 "Player %s %s removed from the game",
                 controller.getPlayer().getName(), isRemoved ? "successfully" : "not");
     }
 
     private void waitForPlayersLobby() {
-        logger.logf("Waiting for players to join lobby");
+        logger.logf(CALL_SITE, "Waiting for players to join lobby");
         while (true) {
             LobbyMenuOption lobbyMenuOption =
                     menuManager.lobbyMenu(
                             playerControllerManager.getPlayers(), MIN_PLAYERS, MAX_PLAYERS);
             switch (lobbyMenuOption) {
                 case ADD_PLAYER -> {
-                    logger.log("Adding a new human player");
+                    logger.log(CALL_SITE, "Adding a new human player");
                     try {
                         String name = menuManager.humanNameMenu();
                         HumanController humanController =
@@ -53,35 +76,38 @@ public class GameEngine extends AbstractGameEngine {
                                         PlayerNameRegistry.getUniqueName(name), menuManager);
                         addPlayerController(humanController);
                     } catch (MenuCancelledException e) {
-                        logger.log("User cancelled adding a human player");
+                        logger.log(CALL_SITE, "User cancelled adding a human player");
                     }
                 }
                 case ADD_COMPUTER -> {
-                    logger.log("Adding a new computer");
+                    logger.log(CALL_SITE, "Adding a new computer");
                     try {
                         String name = menuManager.computerNameMenu();
-                        ComputerEngine engine = menuManager.computerDifficultyMenu();
+                        ComputerEngine engine =
+                                setupComputerEngine(menuManager.computerDifficultyMenu());
                         ComputerController computerController =
                                 new ComputerController(
-                                        PlayerNameRegistry.getUniqueName(name), engine);
+                                        PlayerNameRegistry.getUniqueName(name),
+                                        engine,
+                                        Setting.get().getBoolean(SettingKey.COMPUTER_PONDER));
                         addPlayerController(computerController);
                     } catch (MenuCancelledException e) {
-                        logger.log("User cancelled adding a computer");
+                        logger.log(CALL_SITE, "User cancelled adding a computer");
                     }
                 }
                 case REMOVE_PLAYER -> {
-                    logger.log("Removing a player from lobby");
+                    logger.log(CALL_SITE, "Removing a player from lobby");
                     try {
                         AbstractPlayerController removedPlayer =
                                 menuManager.removePlayerMenu(
                                         playerControllerManager.getPlayerControllers());
                         removePlayerController(removedPlayer);
                     } catch (MenuCancelledException e) {
-                        logger.log("User cancelled removing a player");
+                        logger.log(CALL_SITE, "User cancelled removing a player");
                     }
                 }
                 case START_GAME -> {
-                    logger.log("User requested to start the game");
+                    logger.log(CALL_SITE, "User requested to start the game");
                     return;
                 }
                 case QUIT_GAME -> {
@@ -92,6 +118,7 @@ public class GameEngine extends AbstractGameEngine {
     }
 
     private void rollDice() {
+        long traced = TraceRecorder.begin();
         // Generate a number from 1 to 6 (number of faces on dice)
         Random dice = new Random();
         int diceRoll1 = dice.nextInt(1, 7);
@@ -100,16 +127,21 @@ public class GameEngine extends AbstractGameEngine {
         playerControllerManager.setCurrentPlayerIdx(diceRoll1 + diceRoll2);
         Player startingPlayer = playerControllerManager.peek().getPlayer();
         logger.logf(
+                CALL_SITE,
                 "Dice roll = %d, Starting player: %s",
                 diceRoll1 + diceRoll2, startingPlayer.getName());
+        TraceRecorder.end(
+                TraceRecorder.Category.GAME, "dice", traced, "roll", diceRoll1 + diceRoll2);
     }
 
     private void distributeCards() {
+        long start = System.nanoTime();
         int numCardsToDraw = INITIAL_CARDS_PER_PLAYER * playerControllerManager.size();
         logger.logf(
+                CALL_SITE,
                 "Dealing %d cards to %d players", numCardsToDraw, playerControllerManager.size());
         List<Card> drawnCards = deck.pop(numCardsToDraw);
-        logger.log("Drawn cards: " + Arrays.toString(drawnCards.toArray()));
+        logger.logf(LogLevel.DEBUG, CALL_SITE, "Drawn cards: %s", drawnCards);
 
         // Dish out the cards one by one, like real life you know? Like not getting the
         // direct next card but alternating between players
@@ -118,41 +150,57 @@ public class GameEngine extends AbstractGameEngine {
             for (int j = 0; j < INITIAL_CARDS_PER_PLAYER; j++) {
                 Card drawnCard = drawnCards.get(i + playerControllerManager.size() * j);
                 controller.draw(drawnCard);
-                logger.logf("%s drew: %s", controller.getPlayer().getName(), drawnCard);
+                logger.logEvent(
+                        LogLevel.INFO,
+                        CALL_SITE,
+                        LogEvent.cardDrawn(controller.getPlayer().getName(), drawnCard));
             }
         }
+        DEAL_TIME.recordSince(start);
+        TraceRecorder.end(TraceRecorder.Category.GAME, "deal", start, "cards", numCardsToDraw);
     }
 
     @Override
     public void start() throws IllegalStateException {
         hideCursor();
+        LogContext.Scope gameScope = LogContext.enterGame(LogContext.newGameId());
+        gameStarted();
+        TraceRecorder.startGame();
         try {
             menuManager.welcomeDisplay();
-            logger.log("Prompting user to start game in menu");
+            logger.log(CALL_SITE, "Prompting user to start game in menu");
             switch (menuManager.mainMenu()) {
-                case START_GAME -> logger.log("User is starting the game");
+                case START_GAME -> logger.log(CALL_SITE, "User is starting the game");
                 case EXIT -> {
-                    logger.log("User is exiting the game");
+                    logger.log(CALL_SITE, "User is exiting the game");
                     return;
                 }
             }
 
+            long lobbyTraced = TraceRecorder.begin();
             waitForPlayersLobby();
+            TraceRecorder.end(
+                    TraceRecorder.Category.GAME,
+                    "lobby",
+                    lobbyTraced,
+                    "players",
+                    playerControllerManager.size());
 
             if (!playerControllerManager.isReady()) {
                 logger.logf(
+                        CALL_SITE,
                         "Insufficient players to start the game, found %d",
                         playerControllerManager.size());
                 throw new IllegalStateException("Server requires at least two players");
             }
 
-            logger.logf("Starting game with %d players", playerControllerManager.size());
+            logger.logf(CALL_SITE, "Starting game with %d players", playerControllerManager.size());
 
             rollDice();
 
             distributeCards();
 
-            logger.log("Game loop starting");
+            logger.log(CALL_SITE, "Game loop starting");
             while (shouldGameContinue()) {
                 AbstractPlayerController controller = playerControllerManager.next();
                 playerPlayCard(
@@ -160,15 +208,13 @@ public class GameEngine extends AbstractGameEngine {
                         new PlayCardData(
                                 playerControllerManager.getPlayerControllers(),
                                 parade,
-                                deck.size()));
-
-                Card drawnCard = deck.pop();
-                controller.draw(drawnCard);
-                logger.logf("%s drew: %s", controller.getPlayer().getName(), drawnCard);
+                                deck.size()),
+                        true);
             }
 
-            logger.log("Game loop finished, running final round");
+            logger.log(CALL_SITE, "Game loop finished, running final round");
             menuManager.finalRoundDisplay();
+            long finalRoundStart = System.nanoTime();
             for (int i = 0; i < playerControllerManager.size(); i++) {
                 AbstractPlayerController controller = playerControllerManager.next();
                 playerPlayCard(
@@ -176,13 +222,22 @@ public class GameEngine extends AbstractGameEngine {
                         new PlayCardData(
                                 playerControllerManager.getPlayerControllers(),
                                 parade,
-                                deck.size()));
+                                deck.size()),
+                        false);
             }
+            FINAL_ROUND_TIME.recordSince(finalRoundStart);
+            TraceRecorder.end(TraceRecorder.Category.GAME, "finalRound", finalRoundStart);
 
+            long discardStart = System.nanoTime();
             for (int i = 0; i < playerControllerManager.size(); i++) {
                 AbstractPlayerController controller = playerControllerManager.next();
                 Player player = controller.getPlayer();
-                logger.logf("%s choosing 2 cards to discard.", player.getName());
+                LogContext.setSeat(seatOf(controller));
+                logger.logf(
+                        LogLevel.DEBUG,
+                        CALL_SITE,
+                        "%s choosing 2 cards to discard.",
+                        player.getName());
 
                 for (int j = 0; j < 2; j++) {
                     Card discardedCard =
@@ -191,7 +246,10 @@ public class GameEngine extends AbstractGameEngine {
                                             playerControllerManager.getPlayerControllers(),
                                             parade,
                                             deck.size()));
-                    logger.logf("%s discarded: %s", player.getName(), discardedCard);
+                    logger.logEvent(
+                            LogLevel.INFO,
+                            CALL_SITE,
+                            LogEvent.cardDiscarded(player.getName(), discardedCard));
                     System.out.println(player.getName() + " discarded: " + discardedCard);
                 }
             }
@@ -199,20 +257,84 @@ public class GameEngine extends AbstractGameEngine {
             for (int i = 0; i < playerControllerManager.size(); i++) {
                 playerControllerManager.next().moveCardsFromHandToBoard();
             }
+            DISCARD_TIME.recordSince(discardStart);
+            TraceRecorder.end(TraceRecorder.Category.GAME, "discard", discardStart);
 
-            logger.log("Tabulating scores");
+            LogContext.setSeat(LogContext.NONE);
+            logger.log(CALL_SITE, "Tabulating scores");
+            long scoreStart = System.nanoTime();
             Map<AbstractPlayerController, Integer> playerScores = tabulateScores();
+            SCORE_TIME.recordSince(scoreStart);
+            TraceRecorder.end(TraceRecorder.Category.GAME, "score", scoreStart);
+            logScores(playerScores);
             DeclareWinner declareWinner = new DeclareWinner();
             GameResult result = declareWinner.evaluateScores(playerScores);
             menuManager.endGameDisplay(playerScores, result);
         } catch (IllegalStateException e) {
-            logger.log("Game engine error", e);
+            logger.log(CALL_SITE, "Game engine error", e);
         } catch (MenuCancelledException e) {
-            logger.log("User cancelled menu", e);
+            logger.log(CALL_SITE, "User cancelled menu", e);
         } catch (Exception e) {
-            logger.log("Unexpected error", e);
+            logger.log(CALL_SITE, "Unexpected error", e);
         } finally {
             menuManager.byeByeDisplay();
+            logAllocations(gameEnded());
+            writeMetrics();
+            writeTrace();
+            closeProcessEngines();
+            gameScope.close();
+        }
+    }
+
+    private void closeProcessEngines() {
+        for (ProcessComputerEngine engine : processEngines) {
+            engine.close();
+        }
+        processEngines.clear();
+    }
+
+    private void logAllocations(AllocationTracker.GameReport report) {
+        if (report == null) {
+            return;
+        }
+        if (logger.isEnabled(LogLevel.DEBUG)) {
+            for (int i = 0; i < report.getTurnCount(); i++) {
+                logger.logf(
+                        LogLevel.DEBUG,
+                        CALL_SITE,
+                        "Turn %d allocated engine=%d parade=%d render=%d bytes",
+                        i + 1,
+                        report.getTurnBytes(i, AllocationTracker.Subsystem.ENGINE),
+                        report.getTurnBytes(i, AllocationTracker.Subsystem.PARADE),
+                        report.getTurnBytes(i, AllocationTracker.Subsystem.RENDER));
+            }
+        }
+        logger.logf(CALL_SITE, "Game allocated bytes: %s", report);
+    }
+
+    private void writeMetrics() {
+        String output = Setting.get().get(SettingKey.METRICS_OUTPUT);
+        if (output == null || output.isBlank()) {
+            return;
+        }
+        try {
+            MetricsRegistry.get().writeSnapshot(Path.of(output.trim()));
+            logger.logf(CALL_SITE, "Metrics written to %s", output.trim());
+        } catch (IOException e) {
+            logger.log(CALL_SITE, "Failed to write metrics", e);
+        }
+    }
+
+    private void writeTrace() {
+        String output = Setting.get().get(SettingKey.METRICS_TRACE);
+        if (!TraceRecorder.isEnabled() || output == null || output.isBlank()) {
+            return;
+        }
+        try {
+            TraceRecorder.write(Path.of(output.trim()));
+            logger.logf(CALL_SITE, "Trace written to %s", output.trim());
+        } catch (IOException e) {
+            logger.log(CALL_SITE, "Failed to write trace", e);
         }
     }
 
@@ -222,22 +344,117 @@ public class GameEngine extends AbstractGameEngine {
                 .addShutdownHook(new Thread(() -> System.out.println(Ansi.SHOW_CURSOR)));
     }
 
-    private void playerPlayCard(AbstractPlayerController player, PlayCardData playCardData) {
-        logger.logf("%s playing a card", player.getPlayer().getName());
+    private int seatOf(AbstractPlayerController controller) {
+        return playerControllerManager.getPlayerControllers().indexOf(controller);
+    }
+
+    private void logScores(Map<AbstractPlayerController, Integer> playerScores) {
+        String[] playerNames = new String[playerScores.size()];
+        int[] scores = new int[playerScores.size()];
+        int i = 0;
+        for (Map.Entry<AbstractPlayerController, Integer> entry : playerScores.entrySet()) {
+            playerNames[i] = entry.getKey().getPlayer().getName();
+            scores[i++] = entry.getValue();
+        }
+        logger.logEvent(LogLevel.INFO, CALL_SITE, LogEvent.scores(playerNames, scores));
+    }
+
+    /**
+     * Runs a single turn for the player: the player plays a card into the parade, receives the
+     * cards removed from the parade and optionally draws a replacement card from the deck.
+     *
+     * <p>All players are notified once the turn is completed, before the move is displayed. This
+     * lets computer players start thinking about their next move while the display is running.
+     *
+     * @param player The player taking the turn.
+     * @param playCardData The game state the player decides on.
+     * @param drawCard Whether the player draws a card at the end of the turn.
+     */
+    private void playerPlayCard(
+            AbstractPlayerController player, PlayCardData playCardData, boolean drawCard) {
+        long start = System.nanoTime();
+        TurnEvent turnEvent = new TurnEvent();
+        turnEvent.begin();
+        TURNS.increment();
+        LogContext.setTurn(++turn);
+        LogContext.setSeat(seatOf(player));
+        logger.logf(LogLevel.DEBUG, CALL_SITE, "%s playing a card", player.getPlayer().getName());
         Card playedCard = player.playCard(playCardData);
-        logger.logf(
-                "%s played and placed card into parade: %s",
-                player.getPlayer().getName(), playedCard);
+        logger.logEvent(
+                LogLevel.INFO,
+                CALL_SITE,
+                LogEvent.cardPlayed(player.getPlayer().getName(), playedCard));
 
+        int paradeLength = parade.getCards().size();
+        long allocated = AllocationTracker.begin();
         List<Card> cardsFromParade = parade.placeCard(playedCard);
+        AllocationTracker.end(AllocationTracker.Subsystem.PARADE, allocated);
         player.receiveFromParade(cardsFromParade.toArray(Card[]::new));
-        logger.logf(
-                "%s received %d cards from parade to add to board: %s",
-                player.getPlayer().getName(),
-                cardsFromParade.size(),
-                Arrays.toString(cardsFromParade.toArray()));
+        for (AbstractPlayerController controller : playerControllerManager.getPlayerControllers()) {
+            controller.onCardPlayed(player, paradeLength, playedCard, cardsFromParade);
+        }
+        logger.logEvent(
+                LogLevel.INFO,
+                CALL_SITE,
+                LogEvent.cardsTaken(player.getPlayer().getName(), cardsFromParade));
+
+        if (drawCard) {
+            Card drawnCard = deck.pop();
+            player.draw(drawnCard);
+            logger.logEvent(
+                    LogLevel.INFO,
+                    CALL_SITE,
+                    LogEvent.cardDrawn(player.getPlayer().getName(), drawnCard));
+        }
+
+        PlayCardData nextPlayCardData =
+                new PlayCardData(
+                        playerControllerManager.getPlayerControllers(), parade, deck.size());
+        for (AbstractPlayerController controller : playerControllerManager.getPlayerControllers()) {
+            controller.onTurnEnded(player, nextPlayCardData);
+        }
 
         menuManager.playerMoveDisplay(player.getPlayer(), playedCard, cardsFromParade);
+        TURN_TIME.recordSince(start);
+        TraceRecorder.end(
+                TraceRecorder.Category.GAME,
+                "turn",
+                start,
+                "player",
+                player.getPlayer().getName(),
+                "card",
+                playedCard);
+        AllocationTracker.endTurn();
+        turnEvent.end();
+        if (turnEvent.shouldCommit()) {
+            turnEvent.gameId = LogContext.current().getGameId();
+            turnEvent.turn = turn;
+            turnEvent.player = player.getPlayer().getName();
+            turnEvent.card = playedCard.toString();
+            turnEvent.cardsTaken = cardsFromParade.size();
+            turnEvent.commit();
+        }
+    }
+
+    private ComputerEngine setupComputerEngine(ComputerEngine engine) {
+        Setting settings = Setting.get();
+        if (!settings.getBoolean(SettingKey.COMPUTER_PROCESS)) {
+            return engine;
+        }
+
+        String jvmArgs = settings.get(SettingKey.COMPUTER_PROCESS_JVM_ARGS);
+        logger.logf(CALL_SITE, "%s is running in worker processes", engine.getName());
+        ProcessComputerEngine processEngine =
+                new ProcessComputerEngine(
+                        engine,
+                        settings.getInt(SettingKey.COMPUTER_PROCESS_POOL_SIZE, 1),
+                        settings.getInt(SettingKey.COMPUTER_PROCESS_TIMEOUT_MS, 5000),
+                        jvmArgs == null || jvmArgs.isBlank()
+                                ? List.of()
+                                : List.of(jvmArgs.trim().split("\\s+")));
+        // The workers outlive the game unless they are stopped when it ends
+        processEngines.add(processEngine);
+        return processEngine;
     }
 
     private MenuManager setupMenuProvider() {
@@ -253,7 +470,7 @@ public class GameEngine extends AbstractGameEngine {
                             throw new IllegalStateException(
                                     "Unknown client menu in settings: " + menuType);
                 };
-        logger.log("Gameplay client menu is using " + menuType);
-        return menuManager;
+        logger.log(CALL_SITE, "Gameplay client menu is using " + menuType);
+        return new TimedMenuManager(menuManager);
     }
 }
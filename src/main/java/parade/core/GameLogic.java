@@ -0,0 +1,50 @@
+package parade.core;
+
+import parade.card.Card;
+import parade.computer.ComputerEngine;
+
+import java.util.List;
+
+/**
+ * The GameLogic interface is the part of the game that {@link DifferentialHarness} compares between
+ * two implementations: which cards a card takes from the parade, the scores and winners at the end
+ * of a game, and the engine deciding for computer players.
+ *
+ * <p>{@link ReferenceGameLogic} is the game as it is played, optimised replacements implement this
+ * interface next to it and must have a public no-arg constructor. The harness shares one instance
+ * between all of its threads, and implementations must not modify the lists passed to them.
+ */
+public interface GameLogic {
+    /**
+     * Get the cards that placing a card at the back of the parade takes out of it.
+     *
+     * @param parade The cards in the parade before the card is placed, from front to back.
+     * @param placed The card placed.
+     * @return The cards taken, in the order they were in the parade.
+     */
+    List<Card> removedCards(List<Card> parade, Card placed);
+
+    /**
+     * Get the final score of every seat.
+     *
+     * @param boards The cards on the board of every seat, after the hands were added to them.
+     * @return The score of each seat, lower is better.
+     */
+    int[] scores(List<List<Card>> boards);
+
+    /**
+     * Get the winners of a game.
+     *
+     * @param boards The cards on the board of every seat, after the hands were added to them.
+     * @param scores The score of each seat.
+     * @return A bit mask of the winning seats, more than one bit is set on an overall tie.
+     */
+    int winnerMask(List<List<Card>> boards, int[] scores);
+
+    /**
+     * Creates the engine deciding for one seat of one game.
+     *
+     * @return A new engine.
+     */
+    ComputerEngine newEngine();
+}
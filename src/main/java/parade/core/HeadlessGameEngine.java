@@ -0,0 +1,89 @@
+package parade.core;
+
+import parade.card.Card;
+import parade.card.Deck;
+import parade.player.controller.AbstractPlayerController;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The HeadlessGameEngine class is the sequence of a game played without menus or delays, from the
+ * dice roll to the cards moved from the hands to the boards, shared by {@link SimulatedGameEngine}
+ * and {@link DifferentialHarness} so that the harness checks the same sequence of turns.
+ *
+ * <p>The deck and the starting player are both derived from the random number generator, and the
+ * turns and discards are left to the subclass, which can stop the game early by returning false.
+ */
+abstract class HeadlessGameEngine extends AbstractGameEngine {
+    static final int DISCARDS_PER_PLAYER = 2;
+
+    private final Random random;
+
+    HeadlessGameEngine(Random random) {
+        super(new Deck(random));
+        this.random = random;
+    }
+
+    /**
+     * Plays the game up to its scoring: rolls the dice, deals, plays turns until the game ends,
+     * plays the final round without drawing, discards and moves every hand to its board.
+     *
+     * @return True if the game was played to the end, false if a turn or a discard stopped it.
+     */
+    boolean playToScoring() {
+        playerControllerManager.setCurrentPlayerIdx(
+                random.nextInt(1, 7) + random.nextInt(1, 7));
+
+        int players = playerControllerManager.size();
+        List<Card> drawnCards = deck.pop(INITIAL_CARDS_PER_PLAYER * players);
+        for (int i = 0; i < players; i++) {
+            AbstractPlayerController controller = playerControllerManager.next();
+            for (int j = 0; j < INITIAL_CARDS_PER_PLAYER; j++) {
+                controller.draw(drawnCards.get(i + players * j));
+            }
+        }
+
+        while (shouldGameContinue()) {
+            if (!playTurn(playerControllerManager.next(), true)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < players; i++) {
+            if (!playTurn(playerControllerManager.next(), false)) {
+                return false;
+            }
+        }
+
+        for (int i = 0; i < players; i++) {
+            AbstractPlayerController controller = playerControllerManager.next();
+            for (int j = 0; j < DISCARDS_PER_PLAYER; j++) {
+                if (!discardCard(controller)) {
+                    return false;
+                }
+            }
+        }
+        for (int i = 0; i < players; i++) {
+            playerControllerManager.next().moveCardsFromHandToBoard();
+        }
+        return true;
+    }
+
+    /**
+     * Plays the turn of a player: a card into the parade, the cards it takes onto the board, and a
+     * card drawn if the game is not in its final round.
+     *
+     * @param controller The player on turn.
+     * @param drawCard Whether the player draws a card after playing.
+     * @return True to go on with the game, false to stop it.
+     */
+    abstract boolean playTurn(AbstractPlayerController controller, boolean drawCard);
+
+    /**
+     * Discards one card from the hand of a player at the end of the game.
+     *
+     * @param controller The player discarding.
+     * @return True to go on with the game, false to stop it.
+     */
+    abstract boolean discardCard(AbstractPlayerController controller);
+}
@@ -0,0 +1,61 @@
+package parade.core;
+
+import parade.card.Card;
+import parade.card.Parade;
+import parade.computer.ComputerEngine;
+import parade.computer.HardComputerEngine;
+import parade.core.result.DeclareWinner;
+import parade.player.Player;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.SnapshotController;
+
+import java.util.*;
+
+/**
+ * The ReferenceGameLogic class is the game logic as the game plays it: {@link Parade} for the cards
+ * taken from the parade, the scoring shared by every game engine, {@link DeclareWinner} for the
+ * winners, and {@link HardComputerEngine} for the decisions of computers.
+ */
+public class ReferenceGameLogic implements GameLogic {
+    @Override
+    public List<Card> removedCards(List<Card> parade, Card placed) {
+        return Parade.restore(parade).placeCard(placed);
+    }
+
+    @Override
+    public int[] scores(List<List<Card>> boards) {
+        List<AbstractPlayerController> seats = seats(boards);
+        Map<AbstractPlayerController, Integer> playerScores = Scoring.tabulateScores(seats);
+        int[] scores = new int[seats.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = playerScores.get(seats.get(i));
+        }
+        return scores;
+    }
+
+    @Override
+    public int winnerMask(List<List<Card>> boards, int[] scores) {
+        List<AbstractPlayerController> seats = seats(boards);
+        Map<AbstractPlayerController, Integer> playerScores = new LinkedHashMap<>();
+        for (int i = 0; i < scores.length; i++) {
+            playerScores.put(seats.get(i), scores[i]);
+        }
+        return Scoring.winnerMask(new DeclareWinner().evaluateScores(playerScores), seats);
+    }
+
+    @Override
+    public ComputerEngine newEngine() {
+        return new HardComputerEngine();
+    }
+
+    /** Seats that only hold their boards, to score them the way a game ends. */
+    private static List<AbstractPlayerController> seats(List<List<Card>> boards) {
+        List<AbstractPlayerController> seats = new ArrayList<>();
+        for (int i = 0; i < boards.size(); i++) {
+            Player player = new Player("Seat " + i);
+            player.addToBoard(boards.get(i).toArray(Card[]::new));
+            seats.add(new SnapshotController(player));
+        }
+        return seats;
+    }
+}
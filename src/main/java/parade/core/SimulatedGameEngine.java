@@ -0,0 +1,128 @@
+package parade.core;
+
+import parade.card.Card;
+import parade.computer.ComputerEngine;
+import parade.core.result.*;
+import parade.logger.LogContext;
+import parade.metrics.AllocationTracker;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.ComputerController;
+import parade.player.controller.PlayCardData;
+
+import java.util.*;
+
+/**
+ * The SimulatedGameEngine class plays a whole game between computer engines without any menus or
+ * delays, for tournaments and benchmarks.
+ *
+ * <p>The deck and the starting player are both derived from the seed, so a game can be replayed
+ * exactly by running it again with the same seed and deterministic engines.
+ */
+public class SimulatedGameEngine extends HeadlessGameEngine {
+    private final long seed;
+    private final List<AbstractPlayerController> seats = new ArrayList<>();
+    private SimulationResult result;
+    private AllocationTracker.GameReport allocationReport;
+    private int turns;
+
+    /**
+     * Constructs a simulated game, the order of the engines determines the seats.
+     *
+     * @param seed The seed for the deck and the dice roll.
+     * @param engines The engines to play with, one per seat.
+     * @throws IllegalArgumentException if the number of engines is not a valid player count.
+     */
+    public SimulatedGameEngine(long seed, List<ComputerEngine> engines) {
+        this(seed, new Random(seed), engines);
+    }
+
+    private SimulatedGameEngine(long seed, Random random, List<ComputerEngine> engines) {
+        super(random);
+        if (engines.size() < MIN_PLAYERS || engines.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException(
+                    "Simulation requires " + MIN_PLAYERS + " to " + MAX_PLAYERS + " engines");
+        }
+        this.seed = seed;
+        for (int i = 0; i < engines.size(); i++) {
+            ComputerController controller = new ComputerController("Seat " + i, engines.get(i));
+            seats.add(controller);
+            playerControllerManager.add(controller);
+        }
+    }
+
+    @Override
+    public void start() {
+        LogContext.Scope gameScope = LogContext.enterGame(LogContext.newGameId());
+        gameStarted();
+        try {
+            play();
+        } finally {
+            allocationReport = gameEnded();
+            gameScope.close();
+        }
+    }
+
+    private void play() {
+        playToScoring();
+
+        Map<AbstractPlayerController, Integer> playerScores = tabulateScores();
+        GameResult gameResult = new DeclareWinner().evaluateScores(playerScores);
+        int[] scores = new int[seats.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = playerScores.get(seats.get(i));
+        }
+        result = new SimulationResult(seed, scores, Scoring.winnerMask(gameResult, seats), turns);
+    }
+
+    @Override
+    boolean playTurn(AbstractPlayerController controller, boolean drawCard) {
+        LogContext.setTurn(turns + 1);
+        LogContext.setSeat(seats.indexOf(controller));
+        Card playedCard = controller.playCard(playCardData());
+        int paradeLength = parade.getCards().size();
+        long allocated = AllocationTracker.begin();
+        List<Card> takenCards = parade.placeCard(playedCard);
+        AllocationTracker.end(AllocationTracker.Subsystem.PARADE, allocated);
+        controller.receiveFromParade(takenCards.toArray(Card[]::new));
+        for (AbstractPlayerController seat : seats) {
+            seat.onCardPlayed(controller, paradeLength, playedCard, takenCards);
+        }
+        if (drawCard) {
+            controller.draw(deck.pop());
+        }
+        turns++;
+        TURNS.increment();
+        AllocationTracker.endTurn();
+        return true;
+    }
+
+    @Override
+    boolean discardCard(AbstractPlayerController controller) {
+        controller.discardCard(playCardData());
+        return true;
+    }
+
+    private PlayCardData playCardData() {
+        return new PlayCardData(
+                playerControllerManager.getPlayerControllers(), parade, deck.size());
+    }
+
+    /**
+     * Get the result of the game.
+     *
+     * @return The result, or null if the game has not been played yet.
+     */
+    public SimulationResult getResult() {
+        return result;
+    }
+
+    /**
+     * Get the bytes the game allocated per subsystem.
+     *
+     * @return The allocations, or null if the game has not been played yet or allocations are not
+     *     tracked.
+     */
+    public AllocationTracker.GameReport getAllocationReport() {
+        return allocationReport;
+    }
+}
@@ -0,0 +1,19 @@
+package parade.core;
+
+/**
+ * The result of a simulated game, indexed by seat.
+ *
+ * @param seed The seed the game was played with.
+ * @param scores The final score of each seat, lower is better.
+ * @param winnerMask A bit mask of the winning seats, more than one bit is set on an overall tie.
+ * @param turns The number of turns played, including the final round.
+ */
+public record SimulationResult(long seed, int[] scores, int winnerMask, int turns) {
+    public boolean isWinner(int seat) {
+        return (winnerMask & (1 << seat)) != 0;
+    }
+
+    public boolean isTie() {
+        return Integer.bitCount(winnerMask) > 1;
+    }
+}
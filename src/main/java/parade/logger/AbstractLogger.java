@@ -7,11 +7,19 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public abstract class AbstractLogger {
     private static final String LOGGER_PACKAGE = AbstractLogger.class.getPackage().getName();
+    private static final StackWalker CLASS_WALKER = StackWalker.getInstance();
+    private static final StackWalker FULL_WALKER =
+            StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private static volatile CallerMode callerMode = CallerMode.FULL;
 
     private final PrintWriter writer;
+    private volatile boolean autoFlush = true;
+    private volatile LogLevel level = LogLevel.INFO;
 
     public AbstractLogger() {
         // Defaults to no-op logger
@@ -41,15 +49,185 @@ public abstract class AbstractLogger {
     }
 
     public void log(String message) {
-        writelnFlush(new LogInfo(message));
+        if (isEnabled(LogLevel.INFO)) {
+            log(new LogInfo(message));
+        }
     }
 
     public void log(String message, Exception e) {
-        writelnFlush(new LogInfo(message, e));
+        if (isEnabled(LogLevel.ERROR)) {
+            log(new LogInfo(message, e));
+        }
     }
 
     public void logf(String format, Object... args) {
-        writelnFlush(new LogInfo(String.format(format, args)));
+        if (isEnabled(LogLevel.INFO)) {
+            log(new LogInfo(String.format(format, args)).withTemplate(format));
+        }
+    }
+
+    public void log(CallSite callSite, String message) {
+        log(LogLevel.INFO, callSite, message);
+    }
+
+    public void log(CallSite callSite, String message, Exception e) {
+        log(LogLevel.ERROR, callSite, message, e);
+    }
+
+    public void logf(CallSite callSite, String format, Object... args) {
+        if (isEnabled(LogLevel.INFO)) {
+            LogInfo logInfo = new LogInfo(LogLevel.INFO, callSite, String.format(format, args));
+            log(logInfo.withTemplate(format));
+        }
+    }
+
+    public void log(LogLevel level, String message) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, message));
+        }
+    }
+
+    public void log(LogLevel level, String message, Exception e) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, message).withError(e));
+        }
+    }
+
+    /**
+     * Logs a message that is only built if the record will actually be written.
+     *
+     * @param level The level of the record.
+     * @param messageSupplier The supplier of the message.
+     */
+    public void log(LogLevel level, Supplier<String> messageSupplier) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, messageSupplier.get()));
+        }
+    }
+
+    /**
+     * Logs a formatted message. The message is only formatted if the record will actually be
+     * written, so the arguments should be passed as they are rather than converted to strings.
+     *
+     * @param level The level of the record.
+     * @param format The format string, see {@link String#format(String, Object...)}.
+     * @param args The arguments of the format string.
+     */
+    public void logf(LogLevel level, String format, Object... args) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, String.format(format, args)).withTemplate(format));
+        }
+    }
+
+    public void log(LogLevel level, CallSite callSite, String message) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, callSite, message));
+        }
+    }
+
+    public void log(LogLevel level, CallSite callSite, String message, Exception e) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, callSite, message).withError(e));
+        }
+    }
+
+    public void log(LogLevel level, CallSite callSite, Supplier<String> messageSupplier) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, callSite, messageSupplier.get()));
+        }
+    }
+
+    // Fixed arity overloads, so that disabled calls with few arguments do not allocate an array
+    public void logf(LogLevel level, CallSite callSite, String format, Object arg) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, callSite, String.format(format, arg)).withTemplate(format));
+        }
+    }
+
+    public void logf(LogLevel level, CallSite callSite, String format, Object arg1, Object arg2) {
+        if (isEnabled(level)) {
+            LogInfo logInfo = new LogInfo(level, callSite, String.format(format, arg1, arg2));
+            log(logInfo.withTemplate(format));
+        }
+    }
+
+    public void logf(
+            LogLevel level,
+            CallSite callSite,
+            String format,
+            Object arg1,
+            Object arg2,
+            Object arg3) {
+        if (isEnabled(level)) {
+            LogInfo logInfo = new LogInfo(level, callSite, String.format(format, arg1, arg2, arg3));
+            log(logInfo.withTemplate(format));
+        }
+    }
+
+    public void logf(LogLevel level, CallSite callSite, String format, Object... args) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, callSite, String.format(format, args)).withTemplate(format));
+        }
+    }
+
+    /**
+     * Logs a structured game event. Text loggers write the description of the event, binary
+     * loggers write its fields.
+     *
+     * @param level The level of the record.
+     * @param callSite The call site that logged the event.
+     * @param event The event to log.
+     */
+    public void logEvent(LogLevel level, CallSite callSite, LogEvent event) {
+        if (isEnabled(level)) {
+            log(new LogInfo(level, callSite, event));
+        }
+    }
+
+    /**
+     * Writes a log record if its level is enabled. Every other log method ends up here. Loggers
+     * that only change how records are formatted override {@link #writeRecord(LogInfo)} instead,
+     * loggers that pass records on to other loggers override this method.
+     *
+     * @param logInfo The log record to write.
+     */
+    public void log(LogInfo logInfo) {
+        if (isEnabled(logInfo.getLevel())) {
+            writeRecord(logInfo);
+        }
+    }
+
+    /**
+     * Formats and writes a log record that has passed the level threshold.
+     *
+     * @param logInfo The log record to write.
+     */
+    protected void writeRecord(LogInfo logInfo) {
+        writelnFlush(logInfo);
+    }
+
+    /**
+     * Check whether records of the given level would be written. Callers can use this to skip
+     * expensive work that is only needed for logging.
+     *
+     * @param level The level to check.
+     * @return true if records of the level are written by this logger.
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level.compareTo(this.level) >= 0;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Set the threshold level of this logger, records below it are not written.
+     *
+     * @param level The lowest level that is written.
+     */
+    public void setLevel(LogLevel level) {
+        this.level = level;
     }
 
     protected void writelnFlush(Object x) {
@@ -58,7 +236,17 @@ public abstract class AbstractLogger {
 
     protected void writelnFlush(String message) {
         writer.println(message);
-        writer.flush();
+        if (autoFlush) {
+            writer.flush();
+        }
+    }
+
+    protected void writelnFlush(char[] chars, int offset, int length) {
+        writer.write(chars, offset, length);
+        writer.println();
+        if (autoFlush) {
+            writer.flush();
+        }
     }
 
     protected void write(String message) {
@@ -69,7 +257,21 @@ public abstract class AbstractLogger {
         writer.println(message);
     }
 
-    protected void flush() {
+    /**
+     * Set whether every record is flushed as soon as it is written. Loggers that write records in
+     * batches turn this off and call {@link #flush()} once per batch instead.
+     *
+     * @param autoFlush Whether to flush after every record.
+     */
+    public void setAutoFlush(boolean autoFlush) {
+        this.autoFlush = autoFlush;
+    }
+
+    protected boolean isAutoFlush() {
+        return autoFlush;
+    }
+
+    public void flush() {
         writer.flush();
     }
 
@@ -77,6 +279,24 @@ public abstract class AbstractLogger {
         writer.close();
     }
 
+    /**
+     * Get how the caller of log records without a {@link CallSite} is captured.
+     *
+     * @return The caller capture mode shared by all loggers.
+     */
+    public static CallerMode getCallerMode() {
+        return callerMode;
+    }
+
+    /**
+     * Set how the caller of log records without a {@link CallSite} is captured.
+     *
+     * @param callerMode The caller capture mode shared by all loggers.
+     */
+    public static void setCallerMode(CallerMode callerMode) {
+        AbstractLogger.callerMode = callerMode;
+    }
+
     public static class LogInfo {
         private String message;
         private String caller;
@@ -86,19 +306,165 @@ public abstract class AbstractLogger {
         @SerializedName(value = "stack_trace")
         private String[] stackTrace;
 
+        // Copied from the LogContext of the logging thread, left out when it is not in a game
+        @SerializedName(value = "game_id")
+        private String gameId;
+
+        private Integer turn;
+        private Integer seat;
+
+        // Kept for loggers that format the exception themselves, never serialised
+        private transient Exception exception;
+        // Not serialised either, to keep the JSON format of the records unchanged
+        private transient LogLevel level;
+        private transient LogEvent event;
+        private transient String template;
+
         public LogInfo(String message) {
+            this(LogLevel.INFO, message);
+        }
+
+        public LogInfo(String message, Exception error) {
+            this(LogLevel.ERROR, message);
+            setError(error);
+        }
+
+        public LogInfo(LogLevel level, String message) {
+            this.level = level;
             this.message = message;
             this.caller = deriveCaller();
             this.timestamp = new Date();
+            copyContext();
         }
 
-        public LogInfo(String message, Exception error) {
-            this(message);
+        /**
+         * Constructs a log record whose caller is already known, without walking the stack.
+         *
+         * @param callSite The call site that logged the record.
+         * @param message The message of the record.
+         */
+        public LogInfo(CallSite callSite, String message) {
+            this(LogLevel.INFO, callSite, message);
+        }
+
+        public LogInfo(CallSite callSite, String message, Exception error) {
+            this(LogLevel.ERROR, callSite, message);
+            setError(error);
+        }
+
+        public LogInfo(LogLevel level, CallSite callSite, String message) {
+            this.level = level;
+            this.message = message;
+            this.caller = callSite.getCaller();
+            this.timestamp = new Date();
+            copyContext();
+        }
+
+        /**
+         * Constructs a log record of a game event. The message is only built from the event when a
+         * logger asks for it.
+         *
+         * @param level The level of the record.
+         * @param callSite The call site that logged the event.
+         * @param event The event of the record.
+         */
+        public LogInfo(LogLevel level, CallSite callSite, LogEvent event) {
+            this.level = level;
+            this.event = event;
+            this.caller = callSite.getCaller();
+            this.timestamp = new Date();
+            copyContext();
+        }
+
+        private LogInfo() {}
+
+        /**
+         * Restores a log record that was written earlier, such as one read back from a binary log.
+         *
+         * @param level The level of the record.
+         * @param message The message of the record.
+         * @param caller The caller of the record, may be null.
+         * @param error The error of the record, may be null.
+         * @param timestamp The time the record was logged.
+         * @param stackTrace The stack trace of the error, may be null.
+         * @return The restored record.
+         */
+        public static LogInfo restore(
+                LogLevel level,
+                String message,
+                String caller,
+                String error,
+                Date timestamp,
+                String[] stackTrace) {
+            LogInfo logInfo = new LogInfo();
+            logInfo.level = level;
+            logInfo.message = message;
+            logInfo.caller = caller;
+            logInfo.error = error;
+            logInfo.timestamp = timestamp;
+            logInfo.stackTrace = stackTrace;
+            return logInfo;
+        }
+
+        /**
+         * Attaches an exception to the record.
+         *
+         * @param error The exception to attach.
+         * @return This record.
+         */
+        public LogInfo withError(Exception error) {
+            setError(error);
+            return this;
+        }
+
+        /**
+         * Attaches the format string the message was built from, so that records of the same kind
+         * can be grouped even though their messages differ.
+         *
+         * @param template The format string of the message.
+         * @return This record.
+         */
+        public LogInfo withTemplate(String template) {
+            this.template = template;
+            return this;
+        }
+
+        /**
+         * Attaches the game, turn and seat of a record that is being restored.
+         *
+         * @param gameId The id of the game, may be null.
+         * @param turn The turn, or {@link LogContext#NONE}.
+         * @param seat The seat, or {@link LogContext#NONE}.
+         * @return This record.
+         */
+        public LogInfo withContext(String gameId, int turn, int seat) {
+            setContext(gameId, turn, seat);
+            return this;
+        }
+
+        private void copyContext() {
+            LogContext context = LogContext.current();
+            if (context.getGameId() != null) {
+                setContext(context.getGameId(), context.getTurn(), context.getSeat());
+            }
+        }
+
+        private void setContext(String gameId, int turn, int seat) {
+            this.gameId = gameId;
+            this.turn = turn == LogContext.NONE ? null : turn;
+            this.seat = seat == LogContext.NONE ? null : seat;
+        }
+
+        private void setError(Exception error) {
+            this.exception = error;
             this.error = error.toString();
             this.stackTrace = formatStackTrace(error.getStackTrace());
         }
 
         public String getMessage() {
+            if (message == null && event != null) {
+                message = event.describe();
+            }
             return message;
         }
 
@@ -118,13 +484,73 @@ public abstract class AbstractLogger {
             return stackTrace;
         }
 
+        public String getGameId() {
+            return gameId;
+        }
+
+        /**
+         * Get the turn the record was logged in.
+         *
+         * @return The turn, or {@link LogContext#NONE}.
+         */
+        public int getTurn() {
+            return turn == null ? LogContext.NONE : turn;
+        }
+
+        /**
+         * Get the seat of the player on turn when the record was logged.
+         *
+         * @return The seat, or {@link LogContext#NONE}.
+         */
+        public int getSeat() {
+            return seat == null ? LogContext.NONE : seat;
+        }
+
+        public Exception getException() {
+            return exception;
+        }
+
+        public LogLevel getLevel() {
+            return level;
+        }
+
+        public LogEvent getEvent() {
+            return event;
+        }
+
+        /**
+         * Get what records of the same kind have in common: the format string of a formatted
+         * message, the type of an event, or otherwise the message itself.
+         *
+         * @return The template of the record.
+         */
+        public String getTemplate() {
+            if (template != null) {
+                return template;
+            }
+            return event != null ? event.getType().name() : message;
+        }
+
         private String deriveCaller() {
             Predicate<StackWalker.StackFrame> logFrameFilter =
                     frame -> !frame.getClassName().startsWith(LOGGER_PACKAGE);
-            Function<StackWalker.StackFrame, String> stackFrameMapper =
-                    frame -> frame.toStackTraceElement().toString();
-            return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
-                    .walk(
+            Function<StackWalker.StackFrame, String> stackFrameMapper;
+            StackWalker walker;
+            switch (callerMode) {
+                case NONE -> {
+                    return null;
+                }
+                case CLASS -> {
+                    // Skips building a StackTraceElement, which needs the method and line number
+                    stackFrameMapper = StackWalker.StackFrame::getClassName;
+                    walker = CLASS_WALKER;
+                }
+                default -> {
+                    stackFrameMapper = frame -> frame.toStackTraceElement().toString();
+                    walker = FULL_WALKER;
+                }
+            }
+            return walker.walk(
                             frames ->
                                     frames.filter(logFrameFilter)
                                             .findFirst()
@@ -142,13 +568,19 @@ public abstract class AbstractLogger {
         public String toString() {
             return "LogInfo{"
                     + "message='"
-                    + message
+                    + getMessage()
                     + "', caller='"
                     + caller
                     + "', error='"
                     + error
                     + "', stackTrace="
                     + Arrays.toString(stackTrace)
+                    + ", gameId='"
+                    + gameId
+                    + "', turn="
+                    + turn
+                    + ", seat="
+                    + seat
                     + '}';
         }
     }
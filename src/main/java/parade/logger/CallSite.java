@@ -0,0 +1,55 @@
+package parade.logger;
+
+/**
+ * The CallSite class is a pre-resolved caller for log records. It is meant to be created once per
+ * class and kept in a static field, so that records logged through it carry their caller without
+ * walking the stack, regardless of the {@link CallerMode}.
+ *
+ * <pre>{@code
+ * private static final CallSite CALL_SITE = CallSite.of(GameEngine.class);
+ *
+ * logger.logf(CALL_SITE, "Starting game with %d players", playerCount);
+ * }</pre>
+ */
+public final class CallSite {
+    private final String caller;
+
+    private CallSite(String caller) {
+        this.caller = caller;
+    }
+
+    /**
+     * Constructs a call site for every log statement of the given class.
+     *
+     * @param type The class that logs.
+     * @return The call site of the class.
+     */
+    public static CallSite of(Class<?> type) {
+        return new CallSite(type.getName());
+    }
+
+    /**
+     * Constructs a call site for the log statements of a single method of the given class.
+     *
+     * @param type The class that logs.
+     * @param methodName The name of the method that logs.
+     * @return The call site of the method.
+     */
+    public static CallSite of(Class<?> type, String methodName) {
+        return new CallSite(type.getName() + "." + methodName);
+    }
+
+    /**
+     * Get the caller that is written into the log records.
+     *
+     * @return The name of the class, and the method if one was given.
+     */
+    public String getCaller() {
+        return caller;
+    }
+
+    @Override
+    public String toString() {
+        return "CallSite{caller='" + caller + "'}";
+    }
+}
@@ -0,0 +1,31 @@
+package parade.logger;
+
+/**
+ * The CallerMode enum determines how much effort goes into finding out which code logged a record.
+ * Finding the caller requires walking the stack of the logging thread, which usually costs far
+ * more than writing the record itself.
+ */
+public enum CallerMode {
+    /** The caller is not captured, unless the record is logged through a {@link CallSite}. */
+    NONE,
+    /** Only the class name of the caller is captured. */
+    CLASS,
+    /** The class, method, file and line of the caller are captured. */
+    FULL;
+
+    /**
+     * Get the mode from its name in the settings.
+     *
+     * @param name The name of the mode, case insensitive.
+     * @return The mode with the given name.
+     * @throws IllegalArgumentException if there is no mode with the given name.
+     */
+    public static CallerMode fromString(String name) throws IllegalArgumentException {
+        for (CallerMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown logger caller mode: " + name);
+    }
+}
@@ -0,0 +1,149 @@
+package parade.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The LogContext class holds the game the current thread is playing, along with the turn and the
+ * seat of the player on turn. Every log record copies the context of the thread that logged it, so
+ * records from games running side by side can be told apart.
+ *
+ * <p>The context belongs to a thread, work handed to other threads does not carry it along.
+ *
+ * <pre>{@code
+ * try (LogContext.Scope scope = LogContext.enterGame(LogContext.newGameId())) {
+ *     LogContext.setTurn(1);
+ *     LogContext.setSeat(0);
+ *     logger.log(CALL_SITE, "Tagged with the game, turn and seat");
+ * }
+ * }</pre>
+ */
+public final class LogContext {
+    /** The value of the turn or the seat when it is not known. */
+    public static final int NONE = -1;
+
+    private static final ThreadLocal<LogContext> CURRENT = ThreadLocal.withInitial(LogContext::new);
+    private static final String GAME_ID_PREFIX =
+            Long.toString(ProcessHandle.current().pid(), 36) + "-";
+    private static final AtomicLong gameCounter = new AtomicLong();
+
+    private String gameId;
+    private int turn = NONE;
+    private int seat = NONE;
+    // Whether the records of the game are kept, decided by a sampling logger on first use
+    private Boolean sampled;
+
+    private LogContext() {}
+
+    /**
+     * Get the context of the current thread.
+     *
+     * @return The context, never null.
+     */
+    public static LogContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Get a game id that is unique within this process and unlikely to repeat across processes.
+     *
+     * @return The new game id.
+     */
+    public static String newGameId() {
+        return GAME_ID_PREFIX + gameCounter.incrementAndGet();
+    }
+
+    /**
+     * Marks the current thread as playing the given game, with no turn or seat yet. Closing the
+     * returned scope puts back the context the thread had before.
+     *
+     * @param gameId The id of the game.
+     * @return The scope to close when the game is over.
+     */
+    public static Scope enterGame(String gameId) {
+        LogContext context = current();
+        Scope scope = new Scope(context);
+        context.gameId = gameId;
+        context.turn = NONE;
+        context.seat = NONE;
+        context.sampled = null;
+        return scope;
+    }
+
+    public static void setTurn(int turn) {
+        current().turn = turn;
+    }
+
+    public static void setSeat(int seat) {
+        current().seat = seat;
+    }
+
+    /**
+     * Get the id of the game being played.
+     *
+     * @return The game id, or null outside of a game.
+     */
+    public String getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Get the number of the turn being played, counting from 1.
+     *
+     * @return The turn, or {@link #NONE}.
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Get the seat of the player on turn, counting from 0.
+     *
+     * @return The seat, or {@link #NONE}.
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Get whether the records of the game are kept, as decided by a sampling logger.
+     *
+     * @return The decision, or null if it has not been made yet for this game.
+     */
+    public Boolean getSampled() {
+        return sampled;
+    }
+
+    /**
+     * Set whether the records of the game are kept, for the rest of the game.
+     *
+     * @param sampled The decision.
+     */
+    public void setSampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    /** A game entered by a thread, closing it restores the previous context of the thread. */
+    public static final class Scope implements AutoCloseable {
+        private final LogContext context;
+        private final String previousGameId;
+        private final int previousTurn;
+        private final int previousSeat;
+        private final Boolean previousSampled;
+
+        private Scope(LogContext context) {
+            this.context = context;
+            this.previousGameId = context.gameId;
+            this.previousTurn = context.turn;
+            this.previousSeat = context.seat;
+            this.previousSampled = context.sampled;
+        }
+
+        @Override
+        public void close() {
+            context.gameId = previousGameId;
+            context.turn = previousTurn;
+            context.seat = previousSeat;
+            context.sampled = previousSampled;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package parade.logger;
+
+import parade.card.Card;
+
+import java.util.List;
+
+/**
+ * The LogEvent class is a structured game event attached to a log record. Text loggers write the
+ * event as its description, so the output is the same as logging the description directly. Binary
+ * loggers write the fields of the event as they are, without ever building the description.
+ */
+public final class LogEvent {
+    private final Type type;
+    private final String playerName;
+    private final Card card;
+    private final List<Card> cards;
+    private final String[] playerNames;
+    private final int[] scores;
+
+    private LogEvent(
+            Type type,
+            String playerName,
+            Card card,
+            List<Card> cards,
+            String[] playerNames,
+            int[] scores) {
+        this.type = type;
+        this.playerName = playerName;
+        this.card = card;
+        this.cards = cards;
+        this.playerNames = playerNames;
+        this.scores = scores;
+    }
+
+    public static LogEvent cardPlayed(String playerName, Card card) {
+        return new LogEvent(Type.CARD_PLAYED, playerName, card, null, null, null);
+    }
+
+    public static LogEvent cardsTaken(String playerName, List<Card> cards) {
+        return new LogEvent(Type.CARDS_TAKEN, playerName, null, cards, null, null);
+    }
+
+    public static LogEvent cardDrawn(String playerName, Card card) {
+        return new LogEvent(Type.CARD_DRAWN, playerName, card, null, null, null);
+    }
+
+    public static LogEvent cardDiscarded(String playerName, Card card) {
+        return new LogEvent(Type.CARD_DISCARDED, playerName, card, null, null, null);
+    }
+
+    /**
+     * Constructs a final scores event.
+     *
+     * @param playerNames The names of the players.
+     * @param scores The score of each player, in the same order as the names.
+     * @return The event.
+     * @throws IllegalArgumentException if there is not exactly one score per player.
+     */
+    public static LogEvent scores(String[] playerNames, int[] scores) {
+        if (playerNames.length != scores.length) {
+            throw new IllegalArgumentException("Expected one score per player");
+        }
+        return new LogEvent(Type.SCORES, null, null, null, playerNames, scores);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public Card getCard() {
+        return card;
+    }
+
+    public List<Card> getCards() {
+        return cards;
+    }
+
+    public String[] getPlayerNames() {
+        return playerNames;
+    }
+
+    public int[] getScores() {
+        return scores;
+    }
+
+    /**
+     * Get the text message of the event, as it is written by text loggers.
+     *
+     * @return The description of the event.
+     */
+    public String describe() {
+        return switch (type) {
+            case CARD_PLAYED ->
+                    String.format("%s played and placed card into parade: %s", playerName, card);
+            case CARDS_TAKEN ->
+                    String.format(
+                            "%s received %d cards from parade to add to board: %s",
+                            playerName, cards.size(), cards);
+            case CARD_DRAWN -> String.format("%s drew: %s", playerName, card);
+            case CARD_DISCARDED -> String.format("%s discarded: %s", playerName, card);
+            case SCORES -> {
+                StringBuilder sb = new StringBuilder("Final scores:");
+                for (int i = 0; i < playerNames.length; i++) {
+                    sb.append(i == 0 ? " " : ", ").append(playerNames[i]).append('=');
+                    sb.append(scores[i]);
+                }
+                yield sb.toString();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "LogEvent{type=" + type + ", description='" + describe() + "'}";
+    }
+
+    public enum Type {
+        CARD_PLAYED,
+        CARDS_TAKEN,
+        CARD_DRAWN,
+        CARD_DISCARDED,
+        SCORES
+    }
+}
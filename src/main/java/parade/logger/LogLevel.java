@@ -0,0 +1,29 @@
+package parade.logger;
+
+/**
+ * The LogLevel enum ranks log records by importance, from the most detailed to the most severe. A
+ * logger only writes the records at or above its threshold level.
+ */
+public enum LogLevel {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    /**
+     * Get the level from its name in the settings.
+     *
+     * @param name The name of the level, case insensitive.
+     * @return The level with the given name.
+     * @throws IllegalArgumentException if there is no level with the given name.
+     */
+    public static LogLevel fromString(String name) throws IllegalArgumentException {
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(name.trim())) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("Unknown log level: " + name);
+    }
+}
@@ -1,16 +1,23 @@
 package parade.logger;
 
+import parade.logger.binary.BinaryLogger;
 import parade.logger.impl.*;
 import parade.setting.Setting;
 import parade.setting.SettingKey;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 public class LoggerProvider {
+    // Any logger type with this prefix is written on a background thread
+    private static final String ASYNC_PREFIX = "async_";
+
     private static AbstractLogger instance = null;
 
     public static void setInstance(AbstractLogger logger) {
@@ -33,6 +40,11 @@ public class LoggerProvider {
     public static void setupLogger() throws IOException {
         Setting settings = Setting.get();
 
+        String callerMode = settings.get(SettingKey.LOGGER_CALLER);
+        if (callerMode != null && !callerMode.isBlank()) {
+            AbstractLogger.setCallerMode(CallerMode.fromString(callerMode));
+        }
+
         String loggerTypes = settings.get(SettingKey.LOGGER_TYPES);
         boolean shouldLog = settings.getBoolean(SettingKey.LOGGER_ENABLED);
         AbstractLogger logger;
@@ -46,23 +58,78 @@ public class LoggerProvider {
             if (loggerTypesArrNoDuplicates.size() == 1) {
                 logger = determineLoggerType(loggerTypesArrNoDuplicates.getFirst());
             } else {
+                // In parallel mode a slow logger only holds up its own writer thread
+                boolean parallel = settings.getBoolean(SettingKey.LOGGER_PARALLEL);
                 AbstractLogger[] loggers = new AbstractLogger[loggerTypesArrNoDuplicates.size()];
                 int i = 0;
                 for (String loggerType : loggerTypesArrNoDuplicates) {
+                    if (parallel && !loggerType.startsWith(ASYNC_PREFIX)) {
+                        loggerType = ASYNC_PREFIX + loggerType;
+                    }
                     loggers[i++] = determineLoggerType(loggerType);
                 }
                 logger = new MultiLogger(loggers);
             }
+            logger = sample(routeGames(logger));
         }
         LoggerProvider.setInstance(logger);
     }
 
+    /**
+     * Wraps the logger so that the records of each game are written into a file of their own, if
+     * a directory for game files is set.
+     *
+     * @param logger The logger for records that do not belong to a game.
+     * @return The routing logger, or the given logger if game files are not enabled.
+     * @throws IOException if the directory cannot be created.
+     */
+    private static AbstractLogger routeGames(AbstractLogger logger) throws IOException {
+        Setting settings = Setting.get();
+        String gameDir = settings.get(SettingKey.LOGGER_GAME_DIR);
+        if (gameDir == null || gameDir.isBlank()) {
+            return logger;
+        }
+        Path directory = Files.createDirectories(Path.of(gameDir.trim()));
+        String overflow = settings.get(SettingKey.LOGGER_ASYNC_OVERFLOW);
+        return new GameRoutingLogger(
+                directory,
+                logger,
+                settings.getInt(SettingKey.LOGGER_GAME_WRITERS, 2),
+                settings.getInt(SettingKey.LOGGER_GAME_OPEN_FILES, 64),
+                settings.getInt(SettingKey.LOGGER_ASYNC_BUFFER_SIZE, 8192),
+                overflow == null || overflow.isBlank()
+                        ? AsyncLogger.OverflowPolicy.BLOCK
+                        : AsyncLogger.OverflowPolicy.fromString(overflow),
+                settings.getInt(SettingKey.LOGGER_ASYNC_SAMPLE_RATE, 10));
+    }
+
     private static AbstractLogger determineLoggerType(String loggerType)
             throws IllegalStateException, IOException {
+        if (loggerType.startsWith(ASYNC_PREFIX)) {
+            String delegateType = loggerType.substring(ASYNC_PREFIX.length());
+            String bufferSize = getAsyncSetting(SettingKey.LOGGER_ASYNC_BUFFER_SIZE, delegateType);
+            String overflow = getAsyncSetting(SettingKey.LOGGER_ASYNC_OVERFLOW, delegateType);
+            String sampleRate = getAsyncSetting(SettingKey.LOGGER_ASYNC_SAMPLE_RATE, delegateType);
+            return new AsyncLogger(
+                    "async-logger-" + delegateType,
+                    determineLoggerType(delegateType),
+                    bufferSize == null ? 8192 : Integer.parseInt(bufferSize),
+                    overflow == null
+                            ? AsyncLogger.OverflowPolicy.BLOCK
+                            : AsyncLogger.OverflowPolicy.fromString(overflow),
+                    sampleRate == null ? 10 : Integer.parseInt(sampleRate));
+        }
+        AbstractLogger logger = createLogger(loggerType);
+        logger.setLevel(determineLevel(loggerType));
+        return logger;
+    }
+
+    private static AbstractLogger createLogger(String loggerType)
+            throws IllegalStateException, IOException {
         return switch (loggerType) {
             case "console" -> new PrettyLogger();
             case "console_json" -> new JsonLogger(System.out);
-            case "file_json" -> {
+            case "file_json", "file_mmap" -> {
                 String filePath = Setting.get().get(SettingKey.LOGGER_FILE);
                 if (filePath == null || filePath.isEmpty()) {
                     throw new IllegalStateException("File path for logger is not set in settings");
@@ -73,11 +140,114 @@ public class LoggerProvider {
                 if (parentDir != null && !Files.exists(parentDir)) {
                     Files.createDirectories(parentDir);
                 }
-                yield new JsonLogger(filePath);
+                boolean mapped = loggerType.equals("file_mmap");
+                yield new JsonLogger(mapped ? openMappedLogFile(path) : openLogFile(path));
+            }
+            case "file_binary" -> {
+                String filePath = Setting.get().get(SettingKey.LOGGER_BINARY_FILE);
+                if (filePath == null || filePath.isEmpty()) {
+                    throw new IllegalStateException(
+                            "File path for binary logger is not set in settings");
+                }
+                Path path = Path.of(filePath);
+                Path parentDir = path.getParent();
+                if (parentDir != null && !Files.exists(parentDir)) {
+                    Files.createDirectories(parentDir);
+                }
+                yield new BinaryLogger(filePath);
             }
             default ->
                     throw new IllegalStateException(
                             "Unknown logger type in settings: " + loggerType);
         };
     }
+
+    /**
+     * Opens the log file, rolling it over by size or time if either is configured.
+     *
+     * @param path The path of the log file.
+     * @return The stream to write log records to.
+     * @throws IOException if the file cannot be opened.
+     */
+    private static OutputStream openLogFile(Path path) throws IOException {
+        Setting settings = Setting.get();
+        long maxBytes = settings.getInt(SettingKey.LOGGER_FILE_MAX_SIZE_MB, 0) * 1024L * 1024L;
+        long intervalMillis =
+                TimeUnit.MINUTES.toMillis(settings.getInt(SettingKey.LOGGER_FILE_ROLL_MINUTES, 0));
+        if (maxBytes <= 0 && intervalMillis <= 0) {
+            return new FileOutputStream(path.toFile());
+        }
+        return new RollingFileOutputStream(
+                path,
+                maxBytes,
+                intervalMillis,
+                settings.getInt(SettingKey.LOGGER_FILE_RETENTION, 0),
+                settings.getBoolean(SettingKey.LOGGER_FILE_COMPRESS));
+    }
+
+    /**
+     * Opens the log file for appending through memory mapped segments.
+     *
+     * @param path The path of the log file.
+     * @return The stream to write log records to.
+     * @throws IOException if the file cannot be opened.
+     */
+    private static OutputStream openMappedLogFile(Path path) throws IOException {
+        Setting settings = Setting.get();
+        return new MappedFileOutputStream(
+                path,
+                settings.getInt(SettingKey.LOGGER_MMAP_SEGMENT_MB, 16) * 1024 * 1024,
+                settings.getInt(SettingKey.LOGGER_MMAP_SYNC_MS, 1000));
+    }
+
+    /**
+     * Wraps the logger so that only some games are logged in full and noisy messages are rate
+     * limited, if either is configured.
+     *
+     * @param logger The logger that writes the records that are kept.
+     * @return The sampling logger, or the given logger if sampling is not enabled.
+     */
+    private static AbstractLogger sample(AbstractLogger logger) {
+        Setting settings = Setting.get();
+        int gameSampleRate = settings.getInt(SettingKey.LOGGER_SAMPLE_GAMES, 1);
+        int ratePerSecond = settings.getInt(SettingKey.LOGGER_SAMPLE_RATE_PER_SECOND, 0);
+        if (gameSampleRate <= 1 && ratePerSecond <= 0) {
+            return logger;
+        }
+        return new SamplingLogger(
+                logger,
+                Math.max(gameSampleRate, 1),
+                ratePerSecond,
+                settings.getInt(SettingKey.LOGGER_SAMPLE_BURST, 100));
+    }
+
+    /**
+     * Get an asynchronous logger setting, the value set for the logger type itself takes
+     * precedence over the value set for all asynchronous loggers.
+     *
+     * @param key The setting key, such as {@code logger.async.overflow}.
+     * @param loggerType The type of the logger that is written asynchronously.
+     * @return The trimmed value, or null if neither is set.
+     */
+    private static String getAsyncSetting(SettingKey key, String loggerType) {
+        Setting settings = Setting.get();
+        String value = settings.get(key, loggerType);
+        if (value == null || value.isBlank()) {
+            value = settings.get(key);
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Determines the threshold level of a logger type, the level set for the type itself takes
+     * precedence over the level set for all loggers.
+     */
+    private static LogLevel determineLevel(String loggerType) {
+        Setting settings = Setting.get();
+        String level = settings.get(SettingKey.LOGGER_LEVEL, loggerType);
+        if (level == null || level.isBlank()) {
+            level = settings.get(SettingKey.LOGGER_LEVEL);
+        }
+        return level == null || level.isBlank() ? LogLevel.INFO : LogLevel.fromString(level);
+    }
 }
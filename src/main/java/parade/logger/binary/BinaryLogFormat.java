@@ -0,0 +1,109 @@
+package parade.logger.binary;
+
+import parade.card.Card;
+import parade.card.Colour;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and helpers of the binary log format shared by the writer and the reader.
+ *
+ * <p>A file starts with a magic number and a version, followed by records. Every record is
+ * prefixed with its length in bytes and starts with a type byte. Strings that repeat, such as
+ * player names and callers, are written once in a string record and referred to by a short id
+ * afterwards. Cards are written as a single byte, and timestamps as the difference from the
+ * timestamp of the previous record.
+ *
+ * <p>Lengths and timestamp differences are variable length integers, seven bits per byte with
+ * the high bit set on every byte but the last. Timestamp differences are zigzag encoded first, so
+ * that a clock going backwards still encodes in a few bytes.
+ *
+ * <p>Every record but a string record starts with its timestamp, its level and the context it was
+ * logged in: the game id as a string reference, then the turn and the seat as variable length
+ * integers offset by one, so that zero stands for {@link parade.logger.LogContext#NONE}. Version 1
+ * files have no context in their records.
+ */
+final class BinaryLogFormat {
+    static final int MAGIC = 0x50524c47; // "PRLG"
+    static final byte VERSION = 2;
+    static final byte CONTEXT_VERSION = 2;
+
+    static final byte STRING = 0;
+    static final byte MESSAGE = 1;
+    static final byte CARD_PLAYED = 2;
+    static final byte CARDS_TAKEN = 3;
+    static final byte CARD_DRAWN = 4;
+    static final byte CARD_DISCARDED = 5;
+    static final byte SCORES = 6;
+
+    // String references that are not an id in the string table
+    static final short NULL_STRING = -1;
+    static final short INLINE_STRING = -2;
+    static final byte NO_LEVEL = -1;
+
+    private static final int CARDS_PER_COLOUR = 11;
+    private static final Colour[] COLOURS = Colour.values();
+
+    private BinaryLogFormat() {}
+
+    static byte cardIndex(Card card) {
+        return (byte) (card.getColour().ordinal() * CARDS_PER_COLOUR + card.getNumber());
+    }
+
+    static Card card(int index) {
+        return new Card(index % CARDS_PER_COLOUR, COLOURS[index / CARDS_PER_COLOUR]);
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    static void writeTimestamp(DataOutput out, long timestamp, long previous) throws IOException {
+        long delta = timestamp - previous;
+        writeVarLong(out, (delta << 1) ^ (delta >> 63));
+    }
+
+    static long readTimestamp(DataInput in, long previous) throws IOException {
+        long zigzag = readVarLong(in);
+        return previous + ((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,155 @@
+package parade.logger.binary;
+
+import parade.card.Card;
+import parade.logger.AbstractLogger.LogInfo;
+import parade.logger.LogContext;
+import parade.logger.LogEvent;
+import parade.logger.LogLevel;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The BinaryLogReader class reads back the records written by {@link BinaryLogger}. Game events
+ * are turned back into the same text messages the text loggers would have written for them, tagged
+ * with the game, turn and seat they were logged in.
+ */
+public class BinaryLogReader implements Closeable {
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    private final DataInputStream in;
+    private final byte version;
+    private final List<String> strings = new ArrayList<>();
+    private long lastTimestamp;
+
+    /**
+     * Constructs a reader and checks the file header.
+     *
+     * @param in The stream to read from.
+     * @throws IOException if the header cannot be read or is not a binary log header.
+     */
+    public BinaryLogReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+        if (this.in.readInt() != BinaryLogFormat.MAGIC) {
+            throw new IOException("Not a binary log file");
+        }
+        version = this.in.readByte();
+        if (version < 1 || version > BinaryLogFormat.VERSION) {
+            throw new IOException("Unsupported binary log version: " + version);
+        }
+    }
+
+    /**
+     * Reads the next log record.
+     *
+     * @return The next record, or null at the end of the file.
+     * @throws IOException if the file cannot be read or is corrupted.
+     */
+    public LogInfo next() throws IOException {
+        while (true) {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            long length = first & 0x7F;
+            if ((first & 0x80) != 0) {
+                length |= BinaryLogFormat.readVarLong(in) << 7;
+            }
+            byte[] bytes = new byte[Math.toIntExact(length)];
+            in.readFully(bytes);
+            DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte type = record.readByte();
+            if (type == BinaryLogFormat.STRING) {
+                short id = record.readShort();
+                if (id != strings.size()) {
+                    throw new IOException("Unexpected string id " + id);
+                }
+                strings.add(BinaryLogFormat.readString(record));
+                continue;
+            }
+
+            lastTimestamp = BinaryLogFormat.readTimestamp(record, lastTimestamp);
+            Date timestamp = new Date(lastTimestamp);
+            byte levelOrdinal = record.readByte();
+            LogLevel level = levelOrdinal == BinaryLogFormat.NO_LEVEL ? null : LEVELS[levelOrdinal];
+            String gameId = null;
+            int turn = LogContext.NONE;
+            int seat = LogContext.NONE;
+            if (version >= BinaryLogFormat.CONTEXT_VERSION) {
+                gameId = readStringRef(record);
+                turn = Math.toIntExact(BinaryLogFormat.readVarLong(record) - 1);
+                seat = Math.toIntExact(BinaryLogFormat.readVarLong(record) - 1);
+            }
+            String caller = readStringRef(record);
+            if (type == BinaryLogFormat.MESSAGE) {
+                String message = BinaryLogFormat.readString(record);
+                String error = BinaryLogFormat.readString(record);
+                int frames = record.readInt();
+                String[] stackTrace = frames < 0 ? null : new String[frames];
+                for (int i = 0; i < frames; i++) {
+                    stackTrace[i] = BinaryLogFormat.readString(record);
+                }
+                return LogInfo.restore(level, message, caller, error, timestamp, stackTrace)
+                        .withContext(gameId, turn, seat);
+            }
+            LogEvent event = readEvent(type, record);
+            return LogInfo.restore(level, event.describe(), caller, null, timestamp, null)
+                    .withContext(gameId, turn, seat);
+        }
+    }
+
+    private LogEvent readEvent(byte type, DataInputStream record) throws IOException {
+        if (type == BinaryLogFormat.SCORES) {
+            int players = record.readUnsignedByte();
+            String[] playerNames = new String[players];
+            int[] scores = new int[players];
+            for (int i = 0; i < players; i++) {
+                playerNames[i] = readStringRef(record);
+                scores[i] = record.readInt();
+            }
+            return LogEvent.scores(playerNames, scores);
+        }
+
+        String playerName = readStringRef(record);
+        return switch (type) {
+            case BinaryLogFormat.CARD_PLAYED -> LogEvent.cardPlayed(playerName, readCard(record));
+            case BinaryLogFormat.CARD_DRAWN -> LogEvent.cardDrawn(playerName, readCard(record));
+            case BinaryLogFormat.CARD_DISCARDED ->
+                    LogEvent.cardDiscarded(playerName, readCard(record));
+            case BinaryLogFormat.CARDS_TAKEN -> {
+                int count = record.readUnsignedByte();
+                List<Card> cards = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    cards.add(readCard(record));
+                }
+                yield LogEvent.cardsTaken(playerName, cards);
+            }
+            default -> throw new IOException("Unknown record type: " + type);
+        };
+    }
+
+    private Card readCard(DataInputStream record) throws IOException {
+        return BinaryLogFormat.card(record.readUnsignedByte());
+    }
+
+    private String readStringRef(DataInputStream record) throws IOException {
+        short id = record.readShort();
+        if (id == BinaryLogFormat.NULL_STRING) {
+            return null;
+        }
+        if (id == BinaryLogFormat.INLINE_STRING) {
+            return BinaryLogFormat.readString(record);
+        }
+        if (id < 0 || id >= strings.size()) {
+            throw new IOException("Unknown string id " + id);
+        }
+        return strings.get(id);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
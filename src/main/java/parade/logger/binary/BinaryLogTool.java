@@ -0,0 +1,75 @@
+package parade.logger.binary;
+
+import parade.logger.AbstractLogger.LogInfo;
+import parade.logger.impl.JsonLogEncoder;
+
+import java.io.*;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * The BinaryLogTool class converts binary log files written by {@link BinaryLogger} into the JSON
+ * lines written by the file_json logger, optionally keeping only the lines that match a regular
+ * expression.
+ *
+ * <p>Usage: {@code java -cp parade-game.jar parade.logger.binary.BinaryLogTool --file
+ * logs/server.bin [--grep "played and placed"] [--output logs/server.json]}
+ */
+public class BinaryLogTool {
+    public static void main(String[] args) throws IOException {
+        Path file = null;
+        Pattern grep = null;
+        Path output = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--file" -> file = Path.of(args[i + 1]);
+                case "--grep" -> grep = Pattern.compile(args[i + 1]);
+                case "--output" -> output = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (file == null) {
+            System.err.println(
+                    "Usage: BinaryLogTool --file <binary log> [--grep regex] [--output file]");
+            System.exit(2);
+        }
+
+        // Same charset as the text loggers use for their files
+        OutputStream out = output == null ? System.out : Files.newOutputStream(output);
+        try (BinaryLogReader reader = new BinaryLogReader(Files.newInputStream(file));
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out))) {
+            long converted = convert(reader, writer, grep);
+            writer.flush();
+            System.err.printf("%d records written%n", converted);
+        }
+    }
+
+    /**
+     * Writes every record of the reader as a line of JSON.
+     *
+     * @param reader The reader of the binary log.
+     * @param writer The writer of the JSON lines.
+     * @param grep The pattern a line must contain to be written, or null to write every line.
+     * @return The number of lines written.
+     * @throws IOException if reading or writing fails.
+     */
+    public static long convert(BinaryLogReader reader, Writer writer, Pattern grep)
+            throws IOException {
+        JsonLogEncoder encoder = new JsonLogEncoder();
+        long written = 0;
+        LogInfo logInfo;
+        while ((logInfo = reader.next()) != null) {
+            int length = encoder.encode(logInfo);
+            if (grep != null
+                    && !grep.matcher(CharBuffer.wrap(encoder.getBuffer(), 0, length)).find()) {
+                continue;
+            }
+            writer.write(encoder.getBuffer(), 0, length);
+            writer.write(System.lineSeparator());
+            written++;
+        }
+        return written;
+    }
+}
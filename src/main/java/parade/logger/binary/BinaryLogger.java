@@ -0,0 +1,204 @@
+package parade.logger.binary;
+
+import parade.card.Card;
+import parade.logger.AbstractLogger;
+import parade.logger.LogEvent;
+import parade.logger.LogLevel;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BinaryLogger writes log records in a compact binary format instead of text. Game events are
+ * written as fixed-width fields with one byte per card, and player names, callers and game ids are
+ * written only once per file, so a game event takes around twenty bytes instead of a line of JSON.
+ *
+ * <p>The files can be converted back into the JSON format of the other loggers with {@link
+ * BinaryLogTool}.
+ */
+public class BinaryLogger extends AbstractLogger {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream record = new DataOutputStream(recordBytes);
+    private final Map<String, Short> stringIds = new HashMap<>();
+    private long lastTimestamp;
+    private boolean trouble;
+
+    public BinaryLogger(String fileName) throws IOException {
+        this(new FileOutputStream(fileName));
+    }
+
+    /**
+     * Constructs a binary logger writing to the given stream, starting with the file header.
+     *
+     * @param out The stream to write to.
+     * @throws IOException if the header cannot be written.
+     */
+    public BinaryLogger(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        this.out.writeInt(BinaryLogFormat.MAGIC);
+        this.out.writeByte(BinaryLogFormat.VERSION);
+        this.out.flush();
+    }
+
+    @Override
+    protected synchronized void writeRecord(LogInfo logInfo) {
+        if (trouble) {
+            return;
+        }
+        try {
+            recordBytes.reset();
+            LogEvent event = logInfo.getEvent();
+            if (event == null) {
+                writeMessage(logInfo);
+            } else {
+                writeEvent(logInfo, event);
+            }
+            writeFrame();
+            if (isAutoFlush()) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Like PrintWriter, a logger that fails to write stays quiet rather than fail the game
+            trouble = true;
+        }
+    }
+
+    private void writeMessage(LogInfo logInfo) throws IOException {
+        short callerId = stringId(logInfo.getCaller());
+        short gameId = stringId(logInfo.getGameId());
+        writeHeader(BinaryLogFormat.MESSAGE, logInfo, gameId);
+        writeStringRef(callerId, logInfo.getCaller());
+        BinaryLogFormat.writeString(record, logInfo.getMessage());
+        BinaryLogFormat.writeString(record, logInfo.getError());
+        String[] stackTrace = logInfo.getStackTrace();
+        record.writeInt(stackTrace == null ? -1 : stackTrace.length);
+        if (stackTrace != null) {
+            for (String frame : stackTrace) {
+                BinaryLogFormat.writeString(record, frame);
+            }
+        }
+    }
+
+    private void writeEvent(LogInfo logInfo, LogEvent event) throws IOException {
+        // String records have to be written before the record that refers to them
+        short callerId = stringId(logInfo.getCaller());
+        short gameId = stringId(logInfo.getGameId());
+        if (event.getType() == LogEvent.Type.SCORES) {
+            String[] playerNames = event.getPlayerNames();
+            short[] playerIds = new short[playerNames.length];
+            for (int i = 0; i < playerNames.length; i++) {
+                playerIds[i] = stringId(playerNames[i]);
+            }
+            writeHeader(BinaryLogFormat.SCORES, logInfo, gameId);
+            writeStringRef(callerId, logInfo.getCaller());
+            record.writeByte(playerNames.length);
+            for (int i = 0; i < playerNames.length; i++) {
+                writeStringRef(playerIds[i], playerNames[i]);
+                record.writeInt(event.getScores()[i]);
+            }
+            return;
+        }
+
+        short playerId = stringId(event.getPlayerName());
+        byte type =
+                switch (event.getType()) {
+                    case CARD_PLAYED -> BinaryLogFormat.CARD_PLAYED;
+                    case CARDS_TAKEN -> BinaryLogFormat.CARDS_TAKEN;
+                    case CARD_DRAWN -> BinaryLogFormat.CARD_DRAWN;
+                    case CARD_DISCARDED -> BinaryLogFormat.CARD_DISCARDED;
+                    case SCORES -> throw new IllegalStateException("Scores are written above");
+                };
+        writeHeader(type, logInfo, gameId);
+        writeStringRef(callerId, logInfo.getCaller());
+        writeStringRef(playerId, event.getPlayerName());
+        if (type == BinaryLogFormat.CARDS_TAKEN) {
+            record.writeByte(event.getCards().size());
+            for (Card card : event.getCards()) {
+                record.writeByte(BinaryLogFormat.cardIndex(card));
+            }
+        } else {
+            record.writeByte(BinaryLogFormat.cardIndex(event.getCard()));
+        }
+    }
+
+    private void writeHeader(byte type, LogInfo logInfo, short gameId) throws IOException {
+        long timestamp = logInfo.getTimestamp().getTime();
+        record.writeByte(type);
+        BinaryLogFormat.writeTimestamp(record, timestamp, lastTimestamp);
+        lastTimestamp = timestamp;
+        LogLevel level = logInfo.getLevel();
+        record.writeByte(level == null ? BinaryLogFormat.NO_LEVEL : level.ordinal());
+        writeStringRef(gameId, logInfo.getGameId());
+        BinaryLogFormat.writeVarLong(record, logInfo.getTurn() + 1);
+        BinaryLogFormat.writeVarLong(record, logInfo.getSeat() + 1);
+    }
+
+    private void writeFrame() throws IOException {
+        BinaryLogFormat.writeVarLong(out, recordBytes.size());
+        recordBytes.writeTo(out);
+    }
+
+    /**
+     * Get the id of a string in the string table, adding it with a string record if it is new.
+     * Once the table is full, new strings are written inline in the records instead.
+     */
+    private short stringId(String value) throws IOException {
+        if (value == null) {
+            return BinaryLogFormat.NULL_STRING;
+        }
+        Short id = stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        if (stringIds.size() >= Short.MAX_VALUE) {
+            return BinaryLogFormat.INLINE_STRING;
+        }
+        short newId = (short) stringIds.size();
+        stringIds.put(value, newId);
+        recordBytes.reset();
+        record.writeByte(BinaryLogFormat.STRING);
+        record.writeShort(newId);
+        BinaryLogFormat.writeString(record, value);
+        writeFrame();
+        recordBytes.reset();
+        return newId;
+    }
+
+    private void writeStringRef(short id, String value) throws IOException {
+        record.writeShort(id);
+        if (id == BinaryLogFormat.INLINE_STRING) {
+            BinaryLogFormat.writeString(record, value);
+        }
+    }
+
+    /**
+     * Check whether writing has failed, in which case nothing more is written.
+     *
+     * @return true if an error occurred while writing.
+     */
+    public synchronized boolean checkError() {
+        return trouble;
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            trouble = true;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            trouble = true;
+        }
+    }
+}
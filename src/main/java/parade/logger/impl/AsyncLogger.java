@@ -0,0 +1,275 @@
+package parade.logger.impl;
+
+import parade.logger.AbstractLogger;
+import parade.logger.LogLevel;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AsyncLogger is a wrapper class that moves the actual writing of log records off the calling
+ * thread. Records are published into a preallocated lock-free ring buffer, and a single background
+ * writer thread hands them to the wrapped logger in batches, flushing once per batch instead of
+ * once per line.
+ *
+ * <p>The caller and timestamp of a record are still captured on the calling thread, so the output
+ * is the same as logging synchronously, only delayed.
+ *
+ * <p>When the buffer is full, the {@link OverflowPolicy} decides what happens to the record. The
+ * remaining records are drained and flushed when the logger is closed.
+ */
+public class AsyncLogger extends AbstractLogger {
+    // Flush at least this often under a steady stream of records
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AbstractLogger delegate;
+    private final LogRingBuffer buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final Thread writerThread;
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    // Producers between their check of running and the end of their offer, the writer waits for
+    // them on close so that no record is published after its last drain
+    private final AtomicInteger activeProducers = new AtomicInteger();
+    private volatile boolean running = true;
+    private volatile boolean writerWaiting;
+
+    /**
+     * Constructs an asynchronous logger that writes to the given logger.
+     *
+     * @param delegate The logger that writes the records.
+     * @param capacity The number of records the buffer holds.
+     * @param overflowPolicy What to do with a record when the buffer is full.
+     * @param sampleRate With {@link OverflowPolicy#SAMPLE}, one in this many records that overflow
+     *     the buffer is still written.
+     * @throws IllegalArgumentException if the capacity or the sample rate is not positive.
+     */
+    public AsyncLogger(
+            AbstractLogger delegate, int capacity, OverflowPolicy overflowPolicy, int sampleRate) {
+        this("async-logger", delegate, capacity, overflowPolicy, sampleRate);
+    }
+
+    /**
+     * Constructs an asynchronous logger with a named writer thread, so that the writers of several
+     * asynchronous loggers can be told apart in thread dumps and profilers.
+     *
+     * @param threadName The name of the writer thread.
+     * @param delegate The logger that writes the records.
+     * @param capacity The number of records the buffer holds.
+     * @param overflowPolicy What to do with a record when the buffer is full.
+     * @param sampleRate See {@link #AsyncLogger(AbstractLogger, int, OverflowPolicy, int)}.
+     * @throws IllegalArgumentException if the capacity or the sample rate is not positive.
+     */
+    public AsyncLogger(
+            String threadName,
+            AbstractLogger delegate,
+            int capacity,
+            OverflowPolicy overflowPolicy,
+            int sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+        this.delegate = delegate;
+        this.buffer = new LogRingBuffer(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+        delegate.setAutoFlush(false);
+        writerThread = Thread.ofPlatform().name(threadName).daemon().start(this::writeLoop);
+    }
+
+    @Override
+    public void log(LogInfo logInfo) {
+        if (!delegate.isEnabled(logInfo.getLevel())) {
+            return;
+        }
+        activeProducers.incrementAndGet();
+        try {
+            publish(logInfo);
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    private void publish(LogInfo logInfo) {
+        if (!running) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (buffer.offer(logInfo)) {
+            published();
+            return;
+        }
+        switch (overflowPolicy) {
+            case BLOCK -> offerBlocking(logInfo);
+            case DROP -> droppedCount.incrementAndGet();
+            case SAMPLE -> {
+                if (overflowCount.incrementAndGet() % sampleRate == 0) {
+                    offerBlocking(logInfo);
+                } else {
+                    droppedCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return delegate.isEnabled(level);
+    }
+
+    @Override
+    public LogLevel getLevel() {
+        return delegate.getLevel();
+    }
+
+    @Override
+    public void setLevel(LogLevel level) {
+        delegate.setLevel(level);
+    }
+
+    private void offerBlocking(LogInfo logInfo) {
+        while (!buffer.offer(logInfo)) {
+            if (!running) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        published();
+    }
+
+    private void published() {
+        publishedCount.incrementAndGet();
+        if (writerWaiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            if (drainBatch() > 0) {
+                delegate.flush();
+                continue;
+            }
+            writerWaiting = true;
+            // Check again after announcing, a producer may have published in between
+            if (buffer.size() == 0 && running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            writerWaiting = false;
+        }
+        // Producers that raced the close may still be offering, or have claimed a slot and not yet
+        // published it, every record they get in is written before the delegate is closed
+        while (activeProducers.get() > 0 || buffer.size() > 0) {
+            if (drainBatch() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        delegate.flush();
+    }
+
+    private int drainBatch() {
+        int count = 0;
+        LogInfo logInfo;
+        while (count < MAX_BATCH_SIZE && (logInfo = buffer.poll()) != null) {
+            try {
+                delegate.log(logInfo);
+            } catch (RuntimeException e) {
+                // The writer thread must survive a failing delegate, the record is lost either way
+                droppedCount.incrementAndGet();
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of records accepted into the buffer so far.
+     *
+     * @return The number of published records.
+     */
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    /**
+     * Get the number of records that were thrown away, because the buffer was full or the logger
+     * was already closed.
+     *
+     * @return The number of dropped records.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Get the number of records waiting to be written.
+     *
+     * @return The number of records in the buffer.
+     */
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public void flush() {
+        // The writer thread flushes after every batch
+    }
+
+    /** Stops accepting records, waits for the buffered records to be written and closes. */
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    /** What to do with a record that does not fit into a full buffer. */
+    public enum OverflowPolicy {
+        /** Wait until the writer thread makes space, no record is ever lost. */
+        BLOCK,
+        /** Throw the record away, the caller never waits. */
+        DROP,
+        /** Wait for space for one in every few records and throw the others away. */
+        SAMPLE;
+
+        /**
+         * Get the policy from its name in the settings.
+         *
+         * @param name The name of the policy, case insensitive.
+         * @return The policy with the given name.
+         * @throws IllegalArgumentException if there is no policy with the given name.
+         */
+        public static OverflowPolicy fromString(String name) throws IllegalArgumentException {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(name.trim())) {
+                    return policy;
+                }
+            }
+            throw new IllegalArgumentException("Unknown logger overflow policy: " + name);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package parade.logger.impl;
+
+import parade.logger.AbstractLogger;
+import parade.logger.LogLevel;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GameRoutingLogger is a wrapper class that writes the records of every game into a JSON file of
+ * its own, named after the game id, so that games running side by side can be read one at a time.
+ * Records logged outside of a game go to the fallback logger instead.
+ *
+ * <p>The game files are written by a shared pool of {@link AsyncLogger} writer threads rather than
+ * one thread per game. All records of a game are written by the same writer, so they stay in order,
+ * and each writer keeps only its most recently used files open.
+ */
+public class GameRoutingLogger extends AbstractLogger {
+    private final AbstractLogger fallback;
+    private final AsyncLogger[] writers;
+
+    /**
+     * Constructs a logger that routes the records of each game into its own file.
+     *
+     * @param directory The directory to write the game files into, it must exist.
+     * @param fallback The logger for records that do not belong to a game.
+     * @param writerCount The number of writer threads shared by all games.
+     * @param maxOpenFiles The number of game files each writer keeps open.
+     * @param capacity The number of records the buffer of each writer holds.
+     * @param overflowPolicy What to do with a record when the buffer of its writer is full.
+     * @param sampleRate See {@link AsyncLogger}.
+     * @throws IllegalArgumentException if the number of writers is not positive.
+     */
+    public GameRoutingLogger(
+            Path directory,
+            AbstractLogger fallback,
+            int writerCount,
+            int maxOpenFiles,
+            int capacity,
+            AsyncLogger.OverflowPolicy overflowPolicy,
+            int sampleRate) {
+        if (writerCount <= 0) {
+            throw new IllegalArgumentException("Writer count must be positive: " + writerCount);
+        }
+        this.fallback = fallback;
+        this.writers = new AsyncLogger[writerCount];
+        for (int i = 0; i < writerCount; i++) {
+            writers[i] =
+                    new AsyncLogger(
+                            new GameFileLogger(directory, maxOpenFiles),
+                            capacity,
+                            overflowPolicy,
+                            sampleRate);
+            writers[i].setLevel(fallback.getLevel());
+        }
+    }
+
+    @Override
+    public void log(LogInfo logInfo) {
+        String gameId = logInfo.getGameId();
+        if (gameId == null) {
+            fallback.log(logInfo);
+        } else {
+            writers[Math.floorMod(gameId.hashCode(), writers.length)].log(logInfo);
+        }
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return writers[0].isEnabled(level) || fallback.isEnabled(level);
+    }
+
+    /**
+     * Get the threshold level of the game files.
+     *
+     * @return The lowest level that is written into the game files.
+     */
+    @Override
+    public LogLevel getLevel() {
+        return writers[0].getLevel();
+    }
+
+    /**
+     * Set the threshold level of the game files and of the fallback logger.
+     *
+     * @param level The lowest level that is written.
+     */
+    @Override
+    public void setLevel(LogLevel level) {
+        fallback.setLevel(level);
+        for (AsyncLogger writer : writers) {
+            writer.setLevel(level);
+        }
+    }
+
+    public AbstractLogger getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Get the writers shared by the games, for their queue statistics.
+     *
+     * @return The writers, one per writer thread.
+     */
+    public AsyncLogger[] getWriters() {
+        return writers.clone();
+    }
+
+    @Override
+    public void setAutoFlush(boolean autoFlush) {
+        // The writers flush once per batch, only the fallback logger flushes per record
+        fallback.setAutoFlush(autoFlush);
+    }
+
+    @Override
+    public void flush() {
+        fallback.flush();
+    }
+
+    /** Writes the remaining records of every game, then closes the game files and the fallback. */
+    @Override
+    public void close() {
+        for (AsyncLogger writer : writers) {
+            writer.close();
+        }
+        fallback.close();
+    }
+
+    /**
+     * Writes records into the file of their game, keeping the most recently used files open. Only
+     * ever called from the writer thread of its {@link AsyncLogger}.
+     */
+    private static class GameFileLogger extends AbstractLogger {
+        private final Path directory;
+        private final Map<String, JsonLogger> openFiles;
+
+        GameFileLogger(Path directory, int maxOpenFiles) {
+            this.directory = directory;
+            this.openFiles =
+                    new LinkedHashMap<>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<String, JsonLogger> eldest) {
+                            if (size() <= maxOpenFiles) {
+                                return false;
+                            }
+                            eldest.getValue().close();
+                            return true;
+                        }
+                    };
+        }
+
+        @Override
+        protected void writeRecord(LogInfo logInfo) {
+            JsonLogger file = openFiles.get(logInfo.getGameId());
+            if (file == null) {
+                file = open(logInfo.getGameId());
+                if (file == null) {
+                    return;
+                }
+                openFiles.put(logInfo.getGameId(), file);
+            }
+            file.log(logInfo);
+        }
+
+        private JsonLogger open(String gameId) {
+            Path path = directory.resolve(gameId + ".log");
+            try {
+                // Appends, since a file closed to make room may be opened again later
+                JsonLogger file = new JsonLogger(new FileOutputStream(path.toFile(), true));
+                file.setAutoFlush(false);
+                file.setLevel(LogLevel.TRACE);
+                return file;
+            } catch (FileNotFoundException e) {
+                // The logger cannot log its own failures, and one game must not stop the others
+                System.err.println("Failed to open game log file " + path + ": " + e);
+                return null;
+            }
+        }
+
+        @Override
+        public void flush() {
+            for (JsonLogger file : openFiles.values()) {
+                file.flush();
+            }
+        }
+
+        @Override
+        public void close() {
+            for (JsonLogger file : openFiles.values()) {
+                file.close();
+            }
+            openFiles.clear();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package parade.logger.impl;
+
+import parade.logger.AbstractLogger.LogInfo;
+import parade.logger.LogContext;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.TimeZone;
+
+/**
+ * The JsonLogEncoder class writes log records as single line JSON objects into a reusable
+ * character buffer, without reflection and without building intermediate strings.
+ *
+ * <p>The output is the same as serialising a {@link LogInfo} with Gson with HTML escaping disabled
+ * and the date pattern {@code yyyy-MM-dd'T'HH:mm:ss'Z'} in the default time zone. The fields are
+ * written in declaration order, null fields are left out and strings are escaped the same way.
+ *
+ * <p>An encoder is not thread safe, each writer thread should use its own.
+ */
+public final class JsonLogEncoder {
+    private static final char[] MESSAGE_NAME = "\"message\":".toCharArray();
+    private static final char[] CALLER_NAME = "\"caller\":".toCharArray();
+    private static final char[] ERROR_NAME = "\"error\":".toCharArray();
+    private static final char[] TIMESTAMP_NAME = "\"timestamp\":".toCharArray();
+    private static final char[] STACK_TRACE_NAME = "\"stack_trace\":".toCharArray();
+    private static final char[] GAME_ID_NAME = "\"game_id\":".toCharArray();
+    private static final char[] TURN_NAME = "\"turn\":".toCharArray();
+    private static final char[] SEAT_NAME = "\"seat\":".toCharArray();
+    private static final String[] REPLACEMENT_CHARS = new String[128];
+
+    static {
+        for (int i = 0; i <= 0x1f; i++) {
+            REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+        }
+        REPLACEMENT_CHARS['"'] = "\\\"";
+        REPLACEMENT_CHARS['\\'] = "\\\\";
+        REPLACEMENT_CHARS['\t'] = "\\t";
+        REPLACEMENT_CHARS['\b'] = "\\b";
+        REPLACEMENT_CHARS['\n'] = "\\n";
+        REPLACEMENT_CHARS['\r'] = "\\r";
+        REPLACEMENT_CHARS['\f'] = "\\f";
+    }
+
+    // The same time zone rules as the date format Gson would use
+    private final TimeZone timeZone = TimeZone.getDefault();
+    // Records logged within the same second share the formatted timestamp
+    private final char[] cachedTimestamp = new char[32];
+    private int cachedTimestampLength;
+    private long cachedSecond = Long.MIN_VALUE;
+
+    private char[] buffer = new char[512];
+    private int length;
+
+    /**
+     * Encodes a log record, replacing whatever the buffer held before.
+     *
+     * @param logInfo The log record to encode.
+     * @return The number of characters written into {@link #getBuffer()}.
+     */
+    public int encode(LogInfo logInfo) {
+        length = 0;
+        append('{');
+        boolean first = true;
+        first = appendField(MESSAGE_NAME, logInfo.getMessage(), first);
+        first = appendField(CALLER_NAME, logInfo.getCaller(), first);
+        first = appendField(ERROR_NAME, logInfo.getError(), first);
+        if (logInfo.getTimestamp() != null) {
+            first = appendName(TIMESTAMP_NAME, first);
+            appendTimestamp(logInfo.getTimestamp().getTime());
+        }
+        String[] stackTrace = logInfo.getStackTrace();
+        if (stackTrace != null) {
+            first = appendName(STACK_TRACE_NAME, first);
+            append('[');
+            for (int i = 0; i < stackTrace.length; i++) {
+                if (i > 0) {
+                    append(',');
+                }
+                appendString(stackTrace[i]);
+            }
+            append(']');
+        }
+        first = appendField(GAME_ID_NAME, logInfo.getGameId(), first);
+        first = appendField(TURN_NAME, logInfo.getTurn(), first);
+        appendField(SEAT_NAME, logInfo.getSeat(), first);
+        append('}');
+        return length;
+    }
+
+    /**
+     * Get the buffer holding the last encoded record. The buffer is reused and may be replaced by a
+     * larger one on the next call to {@link #encode(LogInfo)}.
+     *
+     * @return The buffer, valid up to the length returned by the last encode.
+     */
+    public char[] getBuffer() {
+        return buffer;
+    }
+
+    private boolean appendField(char[] name, String value, boolean first) {
+        if (value == null) {
+            return first;
+        }
+        appendName(name, first);
+        appendString(value);
+        return false;
+    }
+
+    private boolean appendField(char[] name, int value, boolean first) {
+        if (value == LogContext.NONE) {
+            return first;
+        }
+        appendName(name, first);
+        appendInt(value);
+        return false;
+    }
+
+    private boolean appendName(char[] name, boolean first) {
+        if (!first) {
+            append(',');
+        }
+        ensureCapacity(name.length);
+        System.arraycopy(name, 0, buffer, length, name.length);
+        length += name.length;
+        return false;
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            append("null");
+            return;
+        }
+        append('"');
+        int last = 0;
+        int valueLength = value.length();
+        for (int i = 0; i < valueLength; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            if (c < 128) {
+                replacement = REPLACEMENT_CHARS[c];
+                if (replacement == null) {
+                    continue;
+                }
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            appendRange(value, last, i);
+            append(replacement);
+            last = i + 1;
+        }
+        appendRange(value, last, valueLength);
+        append('"');
+    }
+
+    private void appendInt(int value) {
+        // Turns and seats are small, this avoids building a string for them
+        if (value < 0 || value >= 1000) {
+            append(Integer.toString(value));
+            return;
+        }
+        if (value >= 100) {
+            append((char) ('0' + value / 100));
+        }
+        if (value >= 10) {
+            append((char) ('0' + value / 10 % 10));
+        }
+        append((char) ('0' + value % 10));
+    }
+
+    private void appendTimestamp(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            formatTimestamp(second);
+            cachedSecond = second;
+        }
+        ensureCapacity(cachedTimestampLength);
+        System.arraycopy(cachedTimestamp, 0, buffer, length, cachedTimestampLength);
+        length += cachedTimestampLength;
+    }
+
+    private void formatTimestamp(long epochSecond) {
+        long localSecond = epochSecond + timeZone.getOffset(epochSecond * 1000) / 1000;
+        LocalDateTime time = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        int i = 0;
+        cachedTimestamp[i++] = '"';
+        String year = Integer.toString(time.getYear());
+        for (int pad = year.length(); pad < 4; pad++) {
+            cachedTimestamp[i++] = '0';
+        }
+        year.getChars(0, year.length(), cachedTimestamp, i);
+        i += year.length();
+        cachedTimestamp[i++] = '-';
+        i = putTwoDigits(time.getMonthValue(), i);
+        cachedTimestamp[i++] = '-';
+        i = putTwoDigits(time.getDayOfMonth(), i);
+        cachedTimestamp[i++] = 'T';
+        i = putTwoDigits(time.getHour(), i);
+        cachedTimestamp[i++] = ':';
+        i = putTwoDigits(time.getMinute(), i);
+        cachedTimestamp[i++] = ':';
+        i = putTwoDigits(time.getSecond(), i);
+        cachedTimestamp[i++] = 'Z';
+        cachedTimestamp[i++] = '"';
+        cachedTimestampLength = i;
+    }
+
+    private int putTwoDigits(int value, int index) {
+        cachedTimestamp[index] = (char) ('0' + value / 10);
+        cachedTimestamp[index + 1] = (char) ('0' + value % 10);
+        return index + 2;
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        buffer[length++] = c;
+    }
+
+    private void append(String value) {
+        appendRange(value, 0, value.length());
+    }
+
+    private void appendRange(String value, int start, int end) {
+        int count = end - start;
+        if (count <= 0) {
+            return;
+        }
+        ensureCapacity(count);
+        value.getChars(start, end, buffer, length);
+        length += count;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            char[] grown = new char[Math.max(buffer.length * 2, length + extra)];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+    }
+}
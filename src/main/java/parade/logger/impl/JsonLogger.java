@@ -1,8 +1,5 @@
 package parade.logger.impl;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
 import parade.logger.AbstractLogger;
 
 import java.io.FileNotFoundException;
@@ -11,11 +8,7 @@ import java.io.PrintWriter;
 import java.io.Writer;
 
 public class JsonLogger extends AbstractLogger {
-    private final Gson gson =
-            new GsonBuilder()
-                    .disableHtmlEscaping()
-                    .setDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'") // ISO 8601 format
-                    .create();
+    private final JsonLogEncoder encoder = new JsonLogEncoder();
 
     public JsonLogger(String fileName) throws FileNotFoundException {
         super(fileName);
@@ -34,18 +27,11 @@ public class JsonLogger extends AbstractLogger {
     }
 
     @Override
-    public void log(String message) {
-        writelnFlush(gson.toJson(new LogInfo(message)));
-    }
-
-    @Override
-    public void log(String message, Exception e) {
-        writelnFlush(gson.toJson(new LogInfo(message, e)));
-    }
-
-    @Override
-    public void logf(String format, Object... args) {
-        String message = String.format(format, args);
-        writelnFlush(gson.toJson(new LogInfo(message)));
+    protected void writeRecord(LogInfo logInfo) {
+        // The encoder reuses its buffer, so records from different threads must take turns
+        synchronized (encoder) {
+            int length = encoder.encode(logInfo);
+            writelnFlush(encoder.getBuffer(), 0, length);
+        }
     }
 }
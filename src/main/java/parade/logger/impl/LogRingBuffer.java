@@ -0,0 +1,96 @@
+package parade.logger.impl;
+
+import parade.logger.AbstractLogger.LogInfo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, preallocated ring buffer of log records that many threads can publish into and a
+ * single thread consumes from, without taking any lock.
+ *
+ * <p>Producers claim a sequence number with a compare-and-set on the tail, store their record in
+ * the slot of that sequence, and then mark the slot as published with the sequence number. The
+ * consumer only reads a slot once it has been marked with the sequence it expects, so a record is
+ * never seen half written even when producers finish out of order.
+ */
+final class LogRingBuffer {
+    private final LogInfo[] entries;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only written by the consumer thread
+    private volatile long head;
+
+    /**
+     * Constructs a ring buffer.
+     *
+     * @param capacity The number of records the buffer holds, rounded up to a power of two.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    LogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        entries = new LogInfo[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Publishes a record if there is space for it.
+     *
+     * @param logInfo The record to publish.
+     * @return true if the record was published, false if the buffer is full.
+     */
+    boolean offer(LogInfo logInfo) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= entries.length) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        int index = (int) (sequence & mask);
+        entries[index] = logInfo;
+        published.set(index, sequence);
+        return true;
+    }
+
+    /**
+     * Takes the oldest record out of the buffer. Must only be called from the consumer thread.
+     *
+     * @return The oldest record, or null if the next record has not been published yet.
+     */
+    LogInfo poll() {
+        long sequence = head;
+        int index = (int) (sequence & mask);
+        if (published.get(index) != sequence) {
+            return null;
+        }
+        LogInfo logInfo = entries[index];
+        entries[index] = null;
+        head = sequence + 1;
+        return logInfo;
+    }
+
+    /**
+     * Get the number of records claimed by producers but not yet consumed.
+     *
+     * @return The number of records in the buffer.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+}
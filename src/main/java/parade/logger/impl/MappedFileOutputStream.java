@@ -0,0 +1,146 @@
+package parade.logger.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The MappedFileOutputStream class appends to a file through a memory mapped segment of it, so
+ * writing a record is a copy into memory instead of a write system call. The file is grown one
+ * pre-sized segment at a time, and the next segment is mapped once the current one is full.
+ *
+ * <p>Flushing does not write anything, the operating system writes mapped pages back on its own.
+ * To bound how much is lost if the machine crashes, the segment is synced to disk on flush once the
+ * sync interval has passed since the last sync, rather than on every flush.
+ *
+ * <p>The unused part of the last segment is cut off when the stream is closed. A file that was not
+ * closed properly ends in zero bytes instead, which are skipped when the file is opened again.
+ */
+public class MappedFileOutputStream extends OutputStream {
+    private final FileChannel channel;
+    private final int segmentBytes;
+    private final long syncIntervalMillis;
+
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long lastSyncMillis = System.currentTimeMillis();
+    private boolean closed;
+
+    /**
+     * Constructs a memory mapped output stream, appending to the file if it already exists.
+     *
+     * @param file The path of the log file.
+     * @param segmentBytes The number of bytes mapped at a time.
+     * @param syncIntervalMillis The minimum time between syncs to disk, or 0 to leave writing back
+     *     to the operating system until the stream is closed.
+     * @throws IOException if the file cannot be opened or mapped.
+     * @throws IllegalArgumentException if the segment size is not positive.
+     */
+    public MappedFileOutputStream(Path file, int segmentBytes, long syncIntervalMillis)
+            throws IOException {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentBytes);
+        }
+        this.segmentBytes = segmentBytes;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.channel =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        map(findEnd());
+    }
+
+    /** Get the position after the last byte written, skipping padding left by an unclean close. */
+    private long findEnd() throws IOException {
+        long size = channel.size();
+        long windowStart = Math.max(0, size - segmentBytes);
+        ByteBuffer window = ByteBuffer.allocate((int) (size - windowStart));
+        while (window.hasRemaining()
+                && channel.read(window, windowStart + window.position()) >= 0) {
+            // Keep reading until the whole window is in
+        }
+        int end = window.position();
+        while (end > 0 && window.get(end - 1) == 0) {
+            end--;
+        }
+        return windowStart + end;
+    }
+
+    private void map(long position) throws IOException {
+        segmentStart = position;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentBytes);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        if (!segment.hasRemaining()) {
+            nextSegment();
+        }
+        segment.put((byte) b);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (!segment.hasRemaining()) {
+                nextSegment();
+            }
+            int count = Math.min(len, segment.remaining());
+            segment.put(b, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    private void nextSegment() throws IOException {
+        // A full segment is never written again, so it is synced now rather than left to the timer
+        if (syncIntervalMillis > 0) {
+            segment.force();
+        }
+        map(segmentStart + segmentBytes);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (syncIntervalMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastSyncMillis >= syncIntervalMillis) {
+            segment.force();
+            lastSyncMillis = now;
+        }
+    }
+
+    /** Syncs the written bytes to disk and cuts off the unused part of the last segment. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segment.force();
+        long end = segmentStart + segment.position();
+        segment = null;
+        try {
+            channel.truncate(end);
+        } finally {
+            channel.close();
+        }
+    }
+}
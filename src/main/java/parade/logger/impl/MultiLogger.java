@@ -1,10 +1,20 @@
 package parade.logger.impl;
 
 import parade.logger.AbstractLogger;
+import parade.logger.LogLevel;
+
+import java.util.Arrays;
 
 /**
  * MultiLogger is a wrapper class that allows for multiple loggers to be used together. It
  * implements the Logger interface and delegates the log messages to all registered loggers.
+ *
+ * <p>Each message is turned into a single log record that is shared by every delegate, so the
+ * caller and timestamp are only derived once.
+ *
+ * <p>Delegates are called one after the other on the logging thread. To keep a slow delegate from
+ * holding up the others, wrap each delegate in an {@link AsyncLogger} with its own buffer, overflow
+ * policy and statistics, which is what the {@code logger.parallel} setting does.
  */
 public class MultiLogger extends AbstractLogger {
     AbstractLogger[] delegates;
@@ -14,23 +24,56 @@ public class MultiLogger extends AbstractLogger {
     }
 
     @Override
-    public void log(String message) {
+    public void log(LogInfo logInfo) {
         for (AbstractLogger delegate : delegates) {
-            delegate.log(message);
+            delegate.log(logInfo);
         }
     }
 
     @Override
-    public void log(String message, Exception e) {
+    public boolean isEnabled(LogLevel level) {
+        for (AbstractLogger delegate : delegates) {
+            if (delegate.isEnabled(level)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Set the threshold level of every delegate, replacing their own thresholds.
+     *
+     * @param level The lowest level that is written.
+     */
+    @Override
+    public void setLevel(LogLevel level) {
+        super.setLevel(level);
+        for (AbstractLogger delegate : delegates) {
+            delegate.setLevel(level);
+        }
+    }
+
+    /**
+     * Get the loggers that records are passed on to, for example to read the statistics of the
+     * asynchronous ones.
+     *
+     * @return A copy of the delegates, in the order they were given.
+     */
+    public AbstractLogger[] getDelegates() {
+        return Arrays.copyOf(delegates, delegates.length);
+    }
+
+    @Override
+    public void setAutoFlush(boolean autoFlush) {
         for (AbstractLogger delegate : delegates) {
-            delegate.log(message, e);
+            delegate.setAutoFlush(autoFlush);
         }
     }
 
     @Override
-    public void logf(String format, Object... args) {
+    public void flush() {
         for (AbstractLogger delegate : delegates) {
-            delegate.logf(format, args);
+            delegate.flush();
         }
     }
 
@@ -1,6 +1,8 @@
 package parade.logger.impl;
 
 import parade.logger.AbstractLogger;
+import parade.logger.CallSite;
+import parade.logger.LogLevel;
 
 /**
  * A no-operation (NOP) implementation of the Logger interface. This class is used when logging is
@@ -18,6 +20,26 @@ public class NopLogger extends AbstractLogger {
     @Override
     public void logf(String format, Object... args) {}
 
+    @Override
+    public void log(CallSite callSite, String message) {}
+
+    @Override
+    public void log(CallSite callSite, String message, Exception e) {}
+
+    @Override
+    public void logf(CallSite callSite, String format, Object... args) {}
+
+    @Override
+    public void log(LogInfo logInfo) {}
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return false;
+    }
+
+    @Override
+    public void flush() {}
+
     @Override
     public void close() {}
 }
@@ -15,14 +15,14 @@ public class PrettyLogger extends AbstractLogger {
     }
 
     @Override
-    public void log(String message) {
-        writelnFlush(format(message));
-    }
-
-    @Override
-    public void log(String message, Exception e) {
+    protected void writeRecord(LogInfo logInfo) {
+        Exception e = logInfo.getException();
+        if (e == null) {
+            writelnFlush(format(logInfo));
+            return;
+        }
         StringBuilder sb = new StringBuilder();
-        sb.append(format(message)).append(System.lineSeparator());
+        sb.append(format(logInfo)).append(System.lineSeparator());
         Predicate<StackTraceElement> loggerFrameFilter =
                 elem -> !elem.getClassName().startsWith(this.getClass().getPackageName());
         List<String> stackTrace =
@@ -36,22 +36,17 @@ public class PrettyLogger extends AbstractLogger {
         writelnFlush(sb.toString());
     }
 
-    @Override
-    public void logf(String format, Object... args) {
-        writelnFlush(format(String.format(format, args)));
-    }
-
-    private String format(String message) {
-        LogInfo logInfo = new LogInfo(message); // use LogInfo to retrieve the caller and timestamp
+    private String format(LogInfo logInfo) {
+        // The caller is missing when caller capture is turned off
+        String caller = logInfo.getCaller() == null ? "" : logInfo.getCaller() + " ";
         return Ansi.GREY
                 + new SimpleDateFormat("HH:mma").format(logInfo.getTimestamp()).toUpperCase()
                 + Ansi.RESET
                 + " "
-                + logInfo.getCaller()
-                + " "
+                + caller
                 + Ansi.CYAN
                 + " > "
                 + Ansi.RESET
-                + message;
+                + logInfo.getMessage();
     }
 }
@@ -0,0 +1,183 @@
+package parade.logger.impl;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The RollingFileOutputStream class writes to a log file that is rolled over once it grows past a
+ * maximum size, or once a fixed time interval has passed. The rolled file is renamed with the time
+ * of the roll, and a new file is started under the original name.
+ *
+ * <p>Files are only rolled when the stream is flushed. Loggers flush after complete records, so a
+ * record is never split across two files, at the cost of a file growing slightly past its maximum
+ * size.
+ *
+ * <p>Compressing rolled files and deleting the ones past the retention count happens on a
+ * background thread, the thread that writes never waits for either.
+ */
+public class RollingFileOutputStream extends OutputStream {
+    private static final DateTimeFormatter ROLL_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    private final Path file;
+    private final long maxBytes;
+    private final long intervalMillis;
+    private final int retention;
+    private final boolean compress;
+    private final ExecutorService housekeeper =
+            Executors.newSingleThreadExecutor(
+                    runnable ->
+                            Thread.ofPlatform().name("log-roller").daemon().unstarted(runnable));
+
+    private OutputStream out;
+    private long bytesWritten;
+    private long nextRollMillis;
+
+    /**
+     * Constructs a rolling output stream, appending to the file if it already exists.
+     *
+     * @param file The path of the active log file.
+     * @param maxBytes The size after which the file is rolled, or 0 to never roll by size.
+     * @param intervalMillis The interval after which the file is rolled, aligned to UTC, or 0 to
+     *     never roll by time.
+     * @param retention The number of rolled files to keep, or 0 to keep all of them.
+     * @param compress Whether to gzip rolled files.
+     * @throws IOException if the file cannot be opened.
+     */
+    public RollingFileOutputStream(
+            Path file, long maxBytes, long intervalMillis, int retention, boolean compress)
+            throws IOException {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.intervalMillis = intervalMillis;
+        this.retention = retention;
+        this.compress = compress;
+        open();
+    }
+
+    private void open() throws IOException {
+        out = new FileOutputStream(file.toFile(), true);
+        bytesWritten = Files.size(file);
+        if (intervalMillis > 0) {
+            long now = System.currentTimeMillis();
+            nextRollMillis = now - now % intervalMillis + intervalMillis;
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        out.write(b);
+        bytesWritten++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        bytesWritten += len;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        out.flush();
+        if (shouldRoll()) {
+            roll();
+        }
+    }
+
+    private boolean shouldRoll() {
+        if (bytesWritten == 0) {
+            return false;
+        }
+        return (maxBytes > 0 && bytesWritten >= maxBytes)
+                || (intervalMillis > 0 && System.currentTimeMillis() >= nextRollMillis);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        Path rolled = rolledPath();
+        Files.move(file, rolled);
+        open();
+        housekeeper.execute(() -> housekeep(rolled));
+    }
+
+    private Path rolledPath() {
+        String baseName = file.getFileName() + "." + LocalDateTime.now().format(ROLL_TIME_FORMAT);
+        Path rolled = file.resolveSibling(baseName);
+        // Several rolls within the same millisecond get a counter
+        for (int i = 1; Files.exists(rolled) || Files.exists(compressedPath(rolled)); i++) {
+            rolled = file.resolveSibling(baseName + "-" + i);
+        }
+        return rolled;
+    }
+
+    private void housekeep(Path rolled) {
+        try {
+            if (compress) {
+                compress(rolled);
+            }
+            deleteExpired();
+        } catch (IOException e) {
+            // The logger cannot log its own failures, and losing housekeeping must not stop logging
+            System.err.println("Failed to housekeep rolled log file " + rolled + ": " + e);
+        }
+    }
+
+    private void compress(Path rolled) throws IOException {
+        Path compressed = compressedPath(rolled);
+        try (InputStream in = Files.newInputStream(rolled);
+                OutputStream gzip =
+                        new GZIPOutputStream(
+                                new BufferedOutputStream(Files.newOutputStream(compressed)))) {
+            in.transferTo(gzip);
+        }
+        Files.delete(rolled);
+    }
+
+    private void deleteExpired() throws IOException {
+        if (retention <= 0) {
+            return;
+        }
+        String prefix = file.getFileName() + ".";
+        List<Path> rolledFiles = new ArrayList<>();
+        Path directory = file.toAbsolutePath().getParent();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .forEach(rolledFiles::add);
+        }
+        // The roll time in the names sorts the files from the oldest to the newest
+        rolledFiles.sort(
+                Comparator.comparing(
+                        path -> path.getFileName().toString().replace(COMPRESSED_SUFFIX, "")));
+        for (int i = 0; i < rolledFiles.size() - retention; i++) {
+            Files.deleteIfExists(rolledFiles.get(i));
+        }
+    }
+
+    private static Path compressedPath(Path rolled) {
+        return rolled.resolveSibling(rolled.getFileName() + COMPRESSED_SUFFIX);
+    }
+
+    /** Closes the active file and waits for pending compression to finish. */
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+        housekeeper.shutdown();
+        try {
+            housekeeper.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
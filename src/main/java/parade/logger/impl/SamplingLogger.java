@@ -0,0 +1,196 @@
+package parade.logger.impl;
+
+import parade.logger.AbstractLogger;
+import parade.logger.LogContext;
+import parade.logger.LogLevel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SamplingLogger is a wrapper class that keeps the full logs of only some of the games, for runs
+ * of so many games that logging every one of them is neither affordable nor readable.
+ *
+ * <p>Whether a game is kept is decided once, on the first record of the game, and stored in its
+ * {@link LogContext}. The records of the other games are rejected by {@link #isEnabled(LogLevel)}
+ * before they are built, so a skipped game costs a thread local lookup per log call. Warnings and
+ * errors are always written, and an error in a skipped game keeps the rest of that game. Records
+ * logged outside of a game are not sampled.
+ *
+ * <p>On top of that, every message template can be rate limited with a token bucket, so that a
+ * single noisy log call cannot flood the output. Errors are never rate limited.
+ */
+public class SamplingLogger extends AbstractLogger {
+    // Templates beyond this many share one bucket, messages built by concatenation never repeat
+    private static final int MAX_BUCKETS = 1024;
+    private static final String SHARED_BUCKET = "";
+
+    private final AbstractLogger delegate;
+    private final int gameSampleRate;
+    private final double ratePerSecond;
+    private final int burst;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong gameCounter = new AtomicLong();
+    private final AtomicLong sampledGames = new AtomicLong();
+    private final AtomicLong skippedGames = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+
+    /**
+     * Constructs a sampling logger that writes to the given logger.
+     *
+     * @param delegate The logger that writes the records that are kept.
+     * @param gameSampleRate One in this many games is logged in full, 1 keeps every game.
+     * @param ratePerSecond The number of records per second each message template may write, or 0
+     *     to not rate limit.
+     * @param burst The number of records a template may write at once before the rate applies.
+     * @throws IllegalArgumentException if the sample rate or the burst is not positive.
+     */
+    public SamplingLogger(
+            AbstractLogger delegate, int gameSampleRate, double ratePerSecond, int burst) {
+        if (gameSampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + gameSampleRate);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        }
+        this.delegate = delegate;
+        this.gameSampleRate = gameSampleRate;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+    }
+
+    @Override
+    public void log(LogInfo logInfo) {
+        LogLevel level = logInfo.getLevel();
+        if (!isEnabled(level)) {
+            return;
+        }
+        if (level == LogLevel.ERROR) {
+            LogContext context = LogContext.current();
+            if (context.getGameId() != null) {
+                // Keeps the rest of a skipped game, the records before the error are already gone
+                context.setSampled(true);
+            }
+        } else if (ratePerSecond > 0 && !bucket(logInfo.getTemplate()).tryAcquire()) {
+            rateLimitedCount.incrementAndGet();
+            return;
+        }
+        delegate.log(logInfo);
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        if (!delegate.isEnabled(level)) {
+            return false;
+        }
+        return level.compareTo(LogLevel.WARN) >= 0 || isGameSampled();
+    }
+
+    private boolean isGameSampled() {
+        if (gameSampleRate == 1) {
+            return true;
+        }
+        LogContext context = LogContext.current();
+        if (context.getGameId() == null) {
+            return true;
+        }
+        Boolean sampled = context.getSampled();
+        if (sampled == null) {
+            sampled = gameCounter.getAndIncrement() % gameSampleRate == 0;
+            (sampled ? sampledGames : skippedGames).incrementAndGet();
+            context.setSampled(sampled);
+        }
+        return sampled;
+    }
+
+    public AbstractLogger getDelegate() {
+        return delegate;
+    }
+
+    private TokenBucket bucket(String template) {
+        String key = template == null ? SHARED_BUCKET : template;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= MAX_BUCKETS) {
+            key = SHARED_BUCKET;
+        }
+        return buckets.computeIfAbsent(key, unused -> new TokenBucket(ratePerSecond, burst));
+    }
+
+    /**
+     * Get the number of games whose records are kept. Games without a single log call that reached
+     * this logger are not counted.
+     *
+     * @return The number of sampled games.
+     */
+    public long getSampledGames() {
+        return sampledGames.get();
+    }
+
+    public long getSkippedGames() {
+        return skippedGames.get();
+    }
+
+    /**
+     * Get the number of records thrown away because their template ran out of tokens.
+     *
+     * @return The number of rate limited records.
+     */
+    public long getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    @Override
+    public LogLevel getLevel() {
+        return delegate.getLevel();
+    }
+
+    @Override
+    public void setLevel(LogLevel level) {
+        delegate.setLevel(level);
+    }
+
+    @Override
+    public void setAutoFlush(boolean autoFlush) {
+        delegate.setAutoFlush(autoFlush);
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /** Allows a number of records per second, with bursts of up to a fixed number of records. */
+    private static class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefillNanos = System.nanoTime();
+
+        TokenBucket(double ratePerSecond, int capacity) {
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -5,11 +5,18 @@ import org.jline.reader.LineReaderBuilder;
 import org.jline.terminal.*;
 
 import parade.logger.AbstractLogger;
+import parade.logger.CallSite;
 import parade.logger.LoggerProvider;
+import parade.metrics.jfr.RenderEvent;
+import parade.metrics.trace.TraceRecorder;
 import parade.utils.Ansi;
 
+import java.io.FilterWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.logging.Level;
@@ -17,9 +24,12 @@ import java.util.logging.Logger;
 
 public abstract class AbstractPrinter {
     private static final AbstractLogger LOGGER = LoggerProvider.getInstance();
+    private static final CallSite CALL_SITE = CallSite.of(AbstractPrinter.class);
     protected static final PrintWriter out;
     protected static final LineReader reader;
 
+    // Set to null to render into a terminal that discards its output, for benchmarks
+    private static final String TERMINAL_PROPERTY = "parade.terminal";
     private static final int DEFAULT_WIDTH = 80;
     private static final int DEFAULT_HEIGHT = 24;
 
@@ -30,6 +40,12 @@ public abstract class AbstractPrinter {
     protected static final int terminalHeight;
     protected static final Terminal terminal;
 
+    // The frame being printed since the last flush, the event is only kept while a recording
+    // wants it, and whether it does is only checked once per frame
+    private static boolean frameStarted;
+    private static RenderEvent frameEvent;
+    private static long frameCharacters;
+
     static { // Static block, think of this like a constructor but static, run once EVER.
         int width;
         int height;
@@ -37,20 +53,20 @@ public abstract class AbstractPrinter {
         LineReader lr = null;
         PrintWriter pw = new PrintWriter(System.out, false);
         try {
-            term = TerminalBuilder.builder().system(true).jansi(true).build();
+            term = buildTerminal();
             width = term.getWidth();
             height = term.getHeight();
             pw = term.writer();
             Logger.getLogger("org.jline").setLevel(Level.OFF);
             lr = LineReaderBuilder.builder().terminal(term).build();
-            LOGGER.log("Initialised terminal instance with JLine");
+            LOGGER.log(CALL_SITE, "Initialised terminal instance with JLine");
         } catch (IOException e) {
-            LOGGER.log("Failed to fetch terminal dimensions, defaulting to 80x24", e);
+            LOGGER.log(CALL_SITE, "Failed to fetch terminal dimensions, defaulting to 80x24", e);
             width = DEFAULT_WIDTH;
             height = DEFAULT_HEIGHT;
         }
         terminal = term;
-        out = pw;
+        out = new PrintWriter(new FrameCountingWriter(pw));
         reader = lr;
         terminalWidth = width;
         terminalHeight = height;
@@ -58,6 +74,18 @@ public abstract class AbstractPrinter {
 
     public AbstractPrinter() {}
 
+    private static Terminal buildTerminal() throws IOException {
+        if ("null".equals(System.getProperty(TERMINAL_PROPERTY))) {
+            return TerminalBuilder.builder()
+                    .system(false)
+                    .streams(InputStream.nullInputStream(), OutputStream.nullOutputStream())
+                    .dumb(true)
+                    .size(new Size(DEFAULT_WIDTH, DEFAULT_HEIGHT))
+                    .build();
+        }
+        return TerminalBuilder.builder().system(true).jansi(true).build();
+    }
+
     protected void println(String s) {
         out.println(s);
     }
@@ -75,7 +103,19 @@ public abstract class AbstractPrinter {
     }
 
     protected void flush() {
+        out.flush();
         terminal.flush();
+        frameStarted = false;
+        RenderEvent event = frameEvent;
+        if (event != null) {
+            frameEvent = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.display = getClass().getName();
+                event.characters = frameCharacters;
+                event.commit();
+            }
+        }
     }
 
     protected void printlnFlush(String s) {
@@ -119,18 +159,27 @@ public abstract class AbstractPrinter {
     }
 
     protected void sleep(int millis, boolean cancellable) {
+        long traced = TraceRecorder.begin();
         if (cancellable && terminal != null) {
             cancellableSleep(millis);
         } else {
             nonCancellableSleep(millis);
         }
+        TraceRecorder.end(
+                TraceRecorder.Category.SLEEP,
+                "sleep",
+                traced,
+                "millis",
+                millis,
+                "cancellable",
+                cancellable && terminal != null);
     }
 
     private void nonCancellableSleep(int millis) {
         try {
             Thread.sleep(millis);
         } catch (InterruptedException e) {
-            LOGGER.log("Sleep interrupted", e);
+            LOGGER.log(CALL_SITE, "Sleep interrupted", e);
         }
     }
 
@@ -144,13 +193,13 @@ public abstract class AbstractPrinter {
             boolean timedOut =
                     executor.invokeAny(Arrays.asList(this::keyPressed, () -> timedOut(millis)));
             if (timedOut) {
-                LOGGER.log("Sleep completed successfully at full duration");
+                LOGGER.log(CALL_SITE, "Sleep completed successfully at full duration");
             } else {
-                LOGGER.log("Sleep interrupted by key press");
+                LOGGER.log(CALL_SITE, "Sleep interrupted by key press");
             }
             executor.shutdownNow();
         } catch (ExecutionException | InterruptedException e) {
-            LOGGER.log("Sleep interrupted", e);
+            LOGGER.log(CALL_SITE, "Sleep interrupted", e);
         }
     }
 
@@ -163,6 +212,44 @@ public abstract class AbstractPrinter {
         }
     }
 
+    /** Counts the characters printed for the frame being rendered, starting its event if needed. */
+    private static class FrameCountingWriter extends FilterWriter {
+        FrameCountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            frameWritten(1);
+            super.write(c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            frameWritten(len);
+            super.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            frameWritten(len);
+            super.write(str, off, len);
+        }
+
+        private static void frameWritten(int characters) {
+            if (!frameStarted) {
+                frameStarted = true;
+                frameCharacters = 0;
+                RenderEvent event = new RenderEvent();
+                if (event.isEnabled()) {
+                    event.begin();
+                    frameEvent = event;
+                }
+            }
+            frameCharacters += characters;
+        }
+    }
+
     private boolean timedOut(int millis) {
         try {
             Thread.sleep(millis);
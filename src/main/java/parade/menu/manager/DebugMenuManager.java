@@ -1,5 +1,6 @@
 package parade.menu.manager;
 
+import parade.computer.SearchTelemetry;
 import parade.core.result.GameResult;
 import parade.menu.display.SeparatorDisplay;
 import parade.menu.menu.*;
@@ -13,6 +14,9 @@ import java.util.*;
 /**
  * A debug text-based implementation of the client renderer for development. Responsible for
  * displaying game state and prompting the user via console.
+ *
+ * <p>At the end of the game it also shows how much each computer engine searched and how fast, from
+ * the totals of the {@link SearchTelemetry}.
  */
 public class DebugMenuManager extends AbstractMenuManager {
     @Override
@@ -41,9 +45,42 @@ public class DebugMenuManager extends AbstractMenuManager {
         for (Map.Entry<AbstractPlayerController, Integer> entry : playerScores.entrySet()) {
             println(entry.getKey().getPlayer().getName() + ": " + entry.getValue());
         }
+        searchDisplay();
         flush();
     }
 
+    private void searchDisplay() {
+        List<SearchTelemetry.Summary> summaries = SearchTelemetry.summaries();
+        if (summaries.isEmpty() && SearchTelemetry.ponderSummaries().isEmpty()) {
+            return;
+        }
+        println();
+        println("Engine search");
+        for (SearchTelemetry.Summary summary : summaries) {
+            printf(
+                    "%s: %d decisions, %.1f positions per decision, %.0f positions/s, max depth %d,"
+                            + " %d cache hits, slowest %.3f ms%n",
+                    summary.engine(),
+                    summary.decisions(),
+                    summary.meanPositions(),
+                    summary.positionsPerSecond(),
+                    summary.maxDepth(),
+                    summary.cacheHits(),
+                    summary.maxNanos() / 1e6);
+            for (Map.Entry<String, Long> phase : summary.phaseNanos().entrySet()) {
+                printf("  %s: %.3f ms%n", phase.getKey(), phase.getValue() / 1e6);
+            }
+        }
+        for (SearchTelemetry.Summary pondering : SearchTelemetry.ponderSummaries()) {
+            printf(
+                    "%s pondering: %d searches, %.1f positions per search, %.3f ms in total%n",
+                    pondering.engine(),
+                    pondering.decisions(),
+                    pondering.meanPositions(),
+                    pondering.nanos() / 1e6);
+        }
+    }
+
     @Override
     public void byeByeDisplay() {
         printlnFlush("Bye bye buddy.");
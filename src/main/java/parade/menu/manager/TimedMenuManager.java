@@ -0,0 +1,201 @@
+package parade.menu.manager;
+
+import parade.card.Card;
+import parade.computer.ComputerEngine;
+import parade.core.result.GameResult;
+import parade.menu.option.LobbyMenuOption;
+import parade.menu.option.MainMenuOption;
+import parade.metrics.AllocationTracker;
+import parade.metrics.Histogram;
+import parade.metrics.MetricsRegistry;
+import parade.metrics.trace.TraceRecorder;
+import parade.player.Player;
+import parade.player.controller.AbstractPlayerController;
+import parade.player.controller.PlayCardData;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TimedMenuManager is a wrapper class that records how long every call to the wrapped menu manager
+ * takes, in a histogram named {@code menu.<method>} per method.
+ *
+ * <p>Menus that prompt the user include the time spent waiting for input, displays measure the
+ * rendering alone, including any animation delays. The bytes every call allocates are counted as
+ * rendering by the {@link AllocationTracker}, when it is enabled, and every call is a render span
+ * of the {@link TraceRecorder}, when tracing is on.
+ */
+public class TimedMenuManager implements MenuManager {
+    private final MenuManager delegate;
+    private final Histogram welcomeDisplay = histogram("welcomeDisplay");
+    private final Histogram mainMenu = histogram("mainMenu");
+    private final Histogram lobbyMenu = histogram("lobbyMenu");
+    private final Histogram diceRollDisplay = histogram("diceRollDisplay");
+    private final Histogram computerNameMenu = histogram("computerNameMenu");
+    private final Histogram computerDifficultyMenu = histogram("computerDifficultyMenu");
+    private final Histogram humanNameMenu = histogram("humanNameMenu");
+    private final Histogram removePlayerMenu = histogram("removePlayerMenu");
+    private final Histogram playerTurnMenu = histogram("playerTurnMenu");
+    private final Histogram playerMoveDisplay = histogram("playerMoveDisplay");
+    private final Histogram finalRoundDisplay = histogram("finalRoundDisplay");
+    private final Histogram endGameDisplay = histogram("endGameDisplay");
+    private final Histogram byeByeDisplay = histogram("byeByeDisplay");
+
+    public TimedMenuManager(MenuManager delegate) {
+        this.delegate = delegate;
+    }
+
+    private static Histogram histogram(String method) {
+        return MetricsRegistry.get().histogram("menu." + method);
+    }
+
+    private static void record(Histogram histogram, String method, long start, long allocated) {
+        histogram.recordSince(start);
+        AllocationTracker.end(AllocationTracker.Subsystem.RENDER, allocated);
+        TraceRecorder.end(TraceRecorder.Category.RENDER, method, start);
+    }
+
+    @Override
+    public void welcomeDisplay() {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            delegate.welcomeDisplay();
+        } finally {
+            record(welcomeDisplay, "welcomeDisplay", start, allocated);
+        }
+    }
+
+    @Override
+    public MainMenuOption mainMenu() {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            return delegate.mainMenu();
+        } finally {
+            record(mainMenu, "mainMenu", start, allocated);
+        }
+    }
+
+    @Override
+    public LobbyMenuOption lobbyMenu(List<Player> lobby, int minPlayers, int maxPlayers) {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            return delegate.lobbyMenu(lobby, minPlayers, maxPlayers);
+        } finally {
+            record(lobbyMenu, "lobbyMenu", start, allocated);
+        }
+    }
+
+    @Override
+    public void diceRollDisplay(int diceRoll1, int diceRoll2, List<Player> players) {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            delegate.diceRollDisplay(diceRoll1, diceRoll2, players);
+        } finally {
+            record(diceRollDisplay, "diceRollDisplay", start, allocated);
+        }
+    }
+
+    @Override
+    public String computerNameMenu() {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            return delegate.computerNameMenu();
+        } finally {
+            record(computerNameMenu, "computerNameMenu", start, allocated);
+        }
+    }
+
+    @Override
+    public ComputerEngine computerDifficultyMenu() {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            return delegate.computerDifficultyMenu();
+        } finally {
+            record(computerDifficultyMenu, "computerDifficultyMenu", start, allocated);
+        }
+    }
+
+    @Override
+    public String humanNameMenu() {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            return delegate.humanNameMenu();
+        } finally {
+            record(humanNameMenu, "humanNameMenu", start, allocated);
+        }
+    }
+
+    @Override
+    public AbstractPlayerController removePlayerMenu(List<AbstractPlayerController> controllers) {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            return delegate.removePlayerMenu(controllers);
+        } finally {
+            record(removePlayerMenu, "removePlayerMenu", start, allocated);
+        }
+    }
+
+    @Override
+    public int playerTurnMenu(Player player, PlayCardData playCardData, boolean toDiscard) {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            return delegate.playerTurnMenu(player, playCardData, toDiscard);
+        } finally {
+            record(playerTurnMenu, "playerTurnMenu", start, allocated);
+        }
+    }
+
+    @Override
+    public void playerMoveDisplay(Player player, Card playedCard, List<Card> cardsFromParade) {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            delegate.playerMoveDisplay(player, playedCard, cardsFromParade);
+        } finally {
+            record(playerMoveDisplay, "playerMoveDisplay", start, allocated);
+        }
+    }
+
+    @Override
+    public void finalRoundDisplay() {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            delegate.finalRoundDisplay();
+        } finally {
+            record(finalRoundDisplay, "finalRoundDisplay", start, allocated);
+        }
+    }
+
+    @Override
+    public void endGameDisplay(
+            Map<AbstractPlayerController, Integer> playerScores, GameResult result) {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            delegate.endGameDisplay(playerScores, result);
+        } finally {
+            record(endGameDisplay, "endGameDisplay", start, allocated);
+        }
+    }
+
+    @Override
+    public void byeByeDisplay() {
+        long start = System.nanoTime();
+        long allocated = AllocationTracker.begin();
+        try {
+            delegate.byeByeDisplay();
+        } finally {
+            record(byeByeDisplay, "byeByeDisplay", start, allocated);
+        }
+    }
+}
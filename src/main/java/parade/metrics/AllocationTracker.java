@@ -0,0 +1,238 @@
+package parade.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The AllocationTracker class attributes the bytes allocated on the heap to the subsystem of the
+ * game that allocated them, to find out where the garbage collector's work comes from and to verify
+ * that an allocation reduction actually helps.
+ *
+ * <p>Sections are measured with the per thread allocation counter of HotSpot, which costs about as
+ * much as a small allocation, so tracking is off unless enabled. Each thread accumulates its own
+ * game, and the totals of every game are also added to the {@code alloc.<subsystem>} counters.
+ * Virtual threads have no allocation counter, so the moves computers work out while pondering are
+ * not counted.
+ *
+ * <pre>{@code
+ * long allocated = AllocationTracker.begin();
+ * List<Card> taken = parade.placeCard(card);
+ * AllocationTracker.end(AllocationTracker.Subsystem.PARADE, allocated);
+ * }</pre>
+ */
+public final class AllocationTracker {
+    private static final ThreadLocal<AllocationTracker> CURRENT =
+            ThreadLocal.withInitial(AllocationTracker::new);
+    private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+    private static final Counter[] TOTALS = new Counter[Subsystem.values().length];
+    private static volatile boolean enabled;
+
+    static {
+        for (Subsystem subsystem : Subsystem.values()) {
+            TOTALS[subsystem.ordinal()] =
+                    MetricsRegistry.get().counter("alloc." + subsystem.getName());
+        }
+    }
+
+    private long[] turnBytes = new long[Subsystem.values().length];
+    private long[] gameBytes = new long[Subsystem.values().length];
+    private List<long[]> turns = new ArrayList<>();
+
+    private AllocationTracker() {}
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean hotSpotBean
+                && hotSpotBean.isThreadAllocatedMemorySupported()) {
+            return hotSpotBean;
+        }
+        return null;
+    }
+
+    /**
+     * Turns tracking on or off for all threads, games that are already running are only partly
+     * counted.
+     *
+     * @param enabled Whether to track allocations.
+     * @throws IllegalStateException if the JVM cannot count the bytes allocated by a thread.
+     */
+    public static void setEnabled(boolean enabled) throws IllegalStateException {
+        if (enabled && THREADS == null) {
+            throw new IllegalStateException("JVM does not support thread allocation counting");
+        }
+        if (enabled) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        AllocationTracker.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts measuring a section of the current thread.
+     *
+     * @return The bytes the thread allocated so far, to pass to {@link #end}, or -1 if tracking is
+     *     off or the thread cannot be measured.
+     */
+    public static long begin() {
+        return enabled ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Attributes the bytes allocated since {@link #begin()} to the subsystem, in the current turn
+     * and game of the thread.
+     *
+     * @param subsystem The subsystem that ran the section.
+     * @param begin The value returned by {@link #begin()}.
+     */
+    public static void end(Subsystem subsystem, long begin) {
+        if (begin < 0) {
+            return;
+        }
+        long bytes = THREADS.getCurrentThreadAllocatedBytes() - begin;
+        AllocationTracker tracker = CURRENT.get();
+        tracker.turnBytes[subsystem.ordinal()] += bytes;
+        tracker.gameBytes[subsystem.ordinal()] += bytes;
+    }
+
+    /** Starts a new game on the current thread, forgetting what was counted outside of a game. */
+    public static void startGame() {
+        if (enabled) {
+            CURRENT.get().clear();
+        }
+    }
+
+    /** Closes the current turn of the thread, the sections measured since belong to the next. */
+    public static void endTurn() {
+        if (enabled) {
+            AllocationTracker tracker = CURRENT.get();
+            tracker.turns.add(tracker.turnBytes);
+            tracker.turnBytes = new long[Subsystem.values().length];
+        }
+    }
+
+    /**
+     * Ends the game of the current thread, adding its totals to the {@code alloc.<subsystem>}
+     * counters.
+     *
+     * @return The bytes allocated by the game, or null if tracking is off.
+     */
+    public static GameReport endGame() {
+        if (!enabled) {
+            return null;
+        }
+        AllocationTracker tracker = CURRENT.get();
+        GameReport report = new GameReport(tracker.gameBytes, tracker.turns);
+        for (Subsystem subsystem : Subsystem.values()) {
+            TOTALS[subsystem.ordinal()].add(tracker.gameBytes[subsystem.ordinal()]);
+        }
+        tracker.clear();
+        return report;
+    }
+
+    private void clear() {
+        turnBytes = new long[Subsystem.values().length];
+        gameBytes = new long[Subsystem.values().length];
+        turns = new ArrayList<>();
+    }
+
+    /** The parts of the game whose allocations are told apart. */
+    public enum Subsystem {
+        /** Computer engines deciding on a card to play or discard. */
+        ENGINE("engine"),
+        /** Placing a card into the parade and taking the cards it removes. */
+        PARADE("parade"),
+        /** Tabulating the scores at the end of a game. */
+        SCORING("scoring"),
+        /** Menus and displays, including reading the input of menus. */
+        RENDER("render");
+
+        private final String name;
+
+        Subsystem(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /** The bytes allocated by one game, in total and turn by turn. */
+    public static final class GameReport {
+        private final long[] gameBytes;
+        private final List<long[]> turnBytes;
+
+        private GameReport(long[] gameBytes, List<long[]> turnBytes) {
+            this.gameBytes = gameBytes;
+            this.turnBytes = List.copyOf(turnBytes);
+        }
+
+        /**
+         * Get the bytes the subsystem allocated during the game, inside and outside of turns.
+         *
+         * @param subsystem The subsystem.
+         * @return The number of bytes.
+         */
+        public long getGameBytes(Subsystem subsystem) {
+            return gameBytes[subsystem.ordinal()];
+        }
+
+        public int getTurnCount() {
+            return turnBytes.size();
+        }
+
+        /**
+         * Get the bytes the subsystem allocated during a turn.
+         *
+         * @param turn The turn, counting from 0.
+         * @param subsystem The subsystem.
+         * @return The number of bytes.
+         */
+        public long getTurnBytes(int turn, Subsystem subsystem) {
+            return turnBytes.get(turn)[subsystem.ordinal()];
+        }
+
+        /**
+         * Get the bytes the subsystem allocated in its most allocating turn.
+         *
+         * @param subsystem The subsystem.
+         * @return The number of bytes, 0 if there were no turns.
+         */
+        public long getMaxTurnBytes(Subsystem subsystem) {
+            long max = 0;
+            for (long[] bytes : turnBytes) {
+                max = Math.max(max, bytes[subsystem.ordinal()]);
+            }
+            return max;
+        }
+
+        /**
+         * Get the game totals and the mean and maximum per turn of every subsystem, on one line.
+         *
+         * @return The summary, such as {@code engine=1200000 (per turn mean=24000 max=91000), ...}.
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Subsystem subsystem : Subsystem.values()) {
+                if (!sb.isEmpty()) {
+                    sb.append(", ");
+                }
+                long total = 0;
+                for (long[] bytes : turnBytes) {
+                    total += bytes[subsystem.ordinal()];
+                }
+                sb.append(subsystem.getName()).append('=').append(getGameBytes(subsystem));
+                sb.append(" (per turn mean=");
+                sb.append(turnBytes.isEmpty() ? 0 : total / getTurnCount());
+                sb.append(" max=").append(getMaxTurnBytes(subsystem)).append(')');
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package parade.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** A count that only goes up, cheap to increment from many threads at once. */
+public final class Counter {
+    private final LongAdder count = new LongAdder();
+
+    Counter() {}
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
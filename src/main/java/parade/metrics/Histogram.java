@@ -0,0 +1,141 @@
+package parade.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Histogram class records the distribution of durations, in nanoseconds, so that percentiles
+ * such as the median and the 99th percentile can be read back.
+ *
+ * <p>Values are counted in log-linear buckets, the way HdrHistogram does: every power of two is
+ * split into 32 equally wide buckets. Values below 64 are counted exactly, and larger values are
+ * reported with an error of at most about 3%, from one nanosecond up to centuries, in a fixed
+ * amount of memory.
+ *
+ * <p>Recording never locks, it updates a few atomic counters and is safe to call from any thread.
+ * A snapshot taken while other threads are recording may be off by those few records.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram() {}
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds, negative durations are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        if (value < min.get()) {
+            min.accumulateAndGet(value, Math::min);
+        }
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Records the time passed since the given start.
+     *
+     * @param startNanos The start, as returned by {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /** Clears the histogram, records made at the same time may be partly kept. */
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    private static int bucketOf(long value) {
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        if (highestBit <= SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    /** Get the highest value that is counted in the bucket. */
+    private static long highestValueOf(int bucket) {
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        if (shift <= 0) {
+            return bucket;
+        }
+        long lowest = (long) (bucket % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Get the statistics of the durations recorded so far.
+     *
+     * @return The snapshot, with all durations in nanoseconds.
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            bucketCounts[i] = counts.get(i);
+            total += bucketCounts[i];
+        }
+        if (total == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        long maxValue = max.get();
+        return new Snapshot(
+                total,
+                (double) sum.get() / count.get(),
+                min.get(),
+                maxValue,
+                percentile(bucketCounts, total, 0.5, maxValue),
+                percentile(bucketCounts, total, 0.9, maxValue),
+                percentile(bucketCounts, total, 0.99, maxValue),
+                percentile(bucketCounts, total, 0.999, maxValue));
+    }
+
+    private static long percentile(long[] bucketCounts, long total, double quantile, long max) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * The statistics of a histogram at one point in time.
+     *
+     * @param count The number of recorded durations.
+     * @param mean The mean duration.
+     * @param min The shortest duration.
+     * @param max The longest duration.
+     * @param p50 The median duration.
+     * @param p90 The 90th percentile.
+     * @param p99 The 99th percentile.
+     * @param p999 The 99.9th percentile.
+     */
+    public record Snapshot(
+            long count, double mean, long min, long max, long p50, long p90, long p99, long p999) {}
+}
@@ -0,0 +1,149 @@
+package parade.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The MetricsRegistry class holds the counters, gauges and histograms of the process by name, and
+ * exports all of them at once as a text or JSON snapshot.
+ *
+ * <p>Metrics are created on first use and live as long as the process. Code that records often
+ * should look its metrics up once and keep them in a field, rather than look them up by name on
+ * every record.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentSkipListMap<>();
+
+    private MetricsRegistry() {}
+
+    /**
+     * Get the registry of the process.
+     *
+     * @return The registry.
+     */
+    public static MetricsRegistry get() {
+        return INSTANCE;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, unused -> new Counter());
+    }
+
+    /**
+     * Get the histogram with the given name, creating it if it does not exist yet.
+     *
+     * @param name The name of the histogram, such as {@code game.turn}.
+     * @return The histogram.
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, unused -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge, a value that is read when a snapshot is taken. A gauge registered under
+     * the same name as an earlier one replaces it.
+     *
+     * @param name The name of the gauge.
+     * @param value The function reading the current value.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /** Resets every counter and histogram to zero, gauges are left as they are. */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Get the current value of a gauge.
+     *
+     * @param name The name of the gauge.
+     * @return The value, or null if no gauge is registered under the name.
+     */
+    public Long getGauge(String name) {
+        LongSupplier gauge = gauges.get(name);
+        return gauge == null ? null : gauge.getAsLong();
+    }
+
+    /**
+     * Get a snapshot of all metrics as text, one metric per line. Durations are in microseconds.
+     *
+     * @return The text snapshot.
+     */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            sb.append(entry.getKey()).append(' ').append(entry.getValue().get()).append('\n');
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            sb.append(entry.getKey()).append(' ').append(entry.getValue().getAsLong());
+            sb.append('\n');
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram.Snapshot snapshot = entry.getValue().snapshot();
+            sb.append(
+                    String.format(
+                            "%s count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus"
+                                    + " p999=%.1fus max=%.1fus%n",
+                            entry.getKey(),
+                            snapshot.count(),
+                            snapshot.mean() / NANOS_PER_MICRO,
+                            snapshot.p50() / NANOS_PER_MICRO,
+                            snapshot.p90() / NANOS_PER_MICRO,
+                            snapshot.p99() / NANOS_PER_MICRO,
+                            snapshot.p999() / NANOS_PER_MICRO,
+                            snapshot.max() / NANOS_PER_MICRO));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get a snapshot of all metrics as a JSON object with a counters, a gauges and a histograms
+     * object in it. Durations are in nanoseconds.
+     *
+     * @return The JSON snapshot.
+     */
+    public String toJson() {
+        Map<String, Long> counterValues = new LinkedHashMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+        Map<String, Long> gaugeValues = new LinkedHashMap<>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsLong()));
+        Map<String, Histogram.Snapshot> histogramValues = new LinkedHashMap<>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("counters", counterValues);
+        snapshot.put("gauges", gaugeValues);
+        snapshot.put("histograms", histogramValues);
+        return GSON.toJson(snapshot);
+    }
+
+    /**
+     * Writes a snapshot of all metrics into a file, as JSON if the file name ends with {@code
+     * .json} and as text otherwise.
+     *
+     * @param file The file to write, it is replaced if it exists.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeSnapshot(Path file) throws IOException {
+        String snapshot = file.getFileName().toString().endsWith(".json") ? toJson() : toText();
+        Files.writeString(file, snapshot);
+    }
+}
@@ -0,0 +1,27 @@
+package parade.metrics.jfr;
+
+import jdk.jfr.*;
+
+/** A Java Flight Recorder event for a computer engine deciding which card to play. */
+@Name("parade.EngineDecision")
+@Label("Engine Decision")
+@Category({"Parade", "Computer"})
+@Description("A computer engine chose a card to play")
+@StackTrace(false)
+public final class EngineDecisionEvent extends Event {
+    @Label("Engine")
+    public String engine;
+
+    @Label("Positions")
+    @Description(
+            "The number of positions the engine evaluated, 0 if the move was pondered and -1 if the"
+                    + " engine does not report its search")
+    public long positions;
+
+    @Label("Pondered")
+    @Description("Whether the move was already worked out while the other players were on turn")
+    public boolean pondered;
+
+    @Label("Card")
+    public String card;
+}
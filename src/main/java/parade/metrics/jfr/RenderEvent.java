@@ -0,0 +1,21 @@
+package parade.metrics.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A Java Flight Recorder event for a frame written to the terminal, from the first character
+ * printed after the previous flush until the frame is flushed.
+ */
+@Name("parade.Render")
+@Label("Render")
+@Category({"Parade", "Menu"})
+@Description("A frame was printed and flushed to the terminal")
+@StackTrace(false)
+public final class RenderEvent extends Event {
+    @Label("Display Class")
+    public String display;
+
+    @Label("Characters Written")
+    @Description("The number of characters printed, which is the number of bytes for plain text")
+    public long characters;
+}
@@ -0,0 +1,30 @@
+package parade.metrics.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A Java Flight Recorder event for a turn played in a game, from the player choosing a card until
+ * the move has been displayed.
+ */
+@Name("parade.Turn")
+@Label("Turn")
+@Category({"Parade", "Game"})
+@Description("A player played a card into the parade")
+@StackTrace(false)
+public final class TurnEvent extends Event {
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Turn")
+    public int turn;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Card")
+    public String card;
+
+    @Label("Cards Taken")
+    @Description("The number of cards the player took from the parade")
+    public int cardsTaken;
+}
@@ -0,0 +1,79 @@
+package parade.metrics.jmx;
+
+import parade.computer.ProcessComputerEngine;
+import parade.metrics.Histogram;
+import parade.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * The EngineStats class reads the decision times of one kind of computer engine from its {@code
+ * computer.process.<engine name>} histogram, and holds the engines running out of process so their
+ * time limit can be changed. Engines are held weakly, an engine of a finished game is forgotten
+ * once it is no longer used.
+ *
+ * <p>Only the cards the game asked for, to play or to discard, are decisions. The searches of
+ * pondering are speculative and are timed in {@code computer.ponder.<engine name>} instead.
+ */
+class EngineStats implements EngineStatsMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Histogram decisionTime;
+    private final Set<ProcessComputerEngine> processEngines =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    EngineStats(String engineName) {
+        this.decisionTime = MetricsRegistry.get().histogram("computer.process." + engineName);
+    }
+
+    void addProcessEngine(ProcessComputerEngine engine) {
+        processEngines.add(engine);
+    }
+
+    @Override
+    public long getDecisionCount() {
+        return decisionTime.snapshot().count();
+    }
+
+    @Override
+    public double getAverageDecisionMillis() {
+        return decisionTime.snapshot().mean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxDecisionMillis() {
+        return decisionTime.snapshot().max() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99DecisionMillis() {
+        return decisionTime.snapshot().p99() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        List<ProcessComputerEngine> engines = processEngines();
+        return engines.isEmpty() ? -1 : engines.get(0).getTimeoutMillis();
+    }
+
+    @Override
+    public void setTimeoutMillis(long timeoutMillis) {
+        List<ProcessComputerEngine> engines = processEngines();
+        if (engines.isEmpty()) {
+            throw new IllegalStateException("Engine runs in process without a time limit");
+        }
+        for (ProcessComputerEngine engine : engines) {
+            engine.setTimeoutMillis(timeoutMillis);
+        }
+    }
+
+    private List<ProcessComputerEngine> processEngines() {
+        synchronized (processEngines) {
+            return new ArrayList<>(processEngines);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package parade.metrics.jmx;
+
+/**
+ * The EngineStatsMXBean interface is the management interface of one kind of computer engine,
+ * registered as {@code parade:type=Engine,name=<engine name>}. Decisions are counted across all
+ * computer players using an engine of that name.
+ */
+public interface EngineStatsMXBean {
+    long getDecisionCount();
+
+    double getAverageDecisionMillis();
+
+    double getMaxDecisionMillis();
+
+    double getP99DecisionMillis();
+
+    /**
+     * Get the time the engine is given to make a single decision.
+     *
+     * @return The time limit in milliseconds, or -1 if the engine runs in process without one.
+     */
+    long getTimeoutMillis();
+
+    /**
+     * Set the time the engine is given to make a single decision, taking effect from the next
+     * decision on.
+     *
+     * @param timeoutMillis The time limit in milliseconds.
+     * @throws IllegalStateException if the engine runs in process, where there is no time limit.
+     */
+    void setTimeoutMillis(long timeoutMillis);
+}
@@ -0,0 +1,98 @@
+package parade.metrics.jmx;
+
+import parade.logger.AbstractLogger;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.AsyncLogger;
+import parade.logger.impl.GameRoutingLogger;
+import parade.logger.impl.MultiLogger;
+import parade.logger.impl.SamplingLogger;
+import parade.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GameStats class reads the game metrics from the {@link MetricsRegistry}, and the queues of
+ * the asynchronous loggers from the logger set up in {@link LoggerProvider}.
+ */
+class GameStats implements GameStatsMXBean {
+    private final MetricsRegistry registry = MetricsRegistry.get();
+    private volatile long resetNanos = System.nanoTime();
+
+    @Override
+    public int getActiveGames() {
+        return (int) gauge("game.active");
+    }
+
+    @Override
+    public long getTotalTurns() {
+        return registry.counter("game.turns").get();
+    }
+
+    @Override
+    public double getTurnsPerSecond() {
+        long elapsed = System.nanoTime() - resetNanos;
+        return elapsed <= 0 ? 0 : getTotalTurns() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    @Override
+    public long getDeckSize() {
+        return gauge("game.deck_size");
+    }
+
+    @Override
+    public long getLoggerQueueDepth() {
+        long depth = 0;
+        for (AsyncLogger logger : asyncLoggers()) {
+            depth += logger.getQueueDepth();
+        }
+        return depth;
+    }
+
+    @Override
+    public long getLoggerDroppedRecords() {
+        long dropped = 0;
+        for (AsyncLogger logger : asyncLoggers()) {
+            dropped += logger.getDroppedCount();
+        }
+        return dropped;
+    }
+
+    @Override
+    public void resetCounters() {
+        registry.reset();
+        resetNanos = System.nanoTime();
+    }
+
+    private long gauge(String name) {
+        Long value = registry.getGauge(name);
+        return value == null ? 0 : value;
+    }
+
+    /** Finds the asynchronous loggers among the loggers wrapped by the current logger. */
+    private static List<AsyncLogger> asyncLoggers() {
+        List<AsyncLogger> found = new ArrayList<>();
+        try {
+            collectAsyncLoggers(LoggerProvider.getInstance(), found);
+        } catch (IllegalStateException e) {
+            // The logger is not set up yet, there is nothing queued
+        }
+        return found;
+    }
+
+    private static void collectAsyncLoggers(AbstractLogger logger, List<AsyncLogger> found) {
+        if (logger instanceof AsyncLogger asyncLogger) {
+            found.add(asyncLogger);
+        } else if (logger instanceof MultiLogger multiLogger) {
+            for (AbstractLogger delegate : multiLogger.getDelegates()) {
+                collectAsyncLoggers(delegate, found);
+            }
+        } else if (logger instanceof GameRoutingLogger routingLogger) {
+            collectAsyncLoggers(routingLogger.getFallback(), found);
+            found.addAll(List.of(routingLogger.getWriters()));
+        } else if (logger instanceof SamplingLogger samplingLogger) {
+            collectAsyncLoggers(samplingLogger.getDelegate(), found);
+        }
+    }
+}
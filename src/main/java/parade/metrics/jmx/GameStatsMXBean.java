@@ -0,0 +1,42 @@
+package parade.metrics.jmx;
+
+/**
+ * The GameStatsMXBean interface is the management interface of the games running in this process,
+ * as shown by JConsole or VisualVM under {@code parade:type=GameStats}.
+ */
+public interface GameStatsMXBean {
+    int getActiveGames();
+
+    long getTotalTurns();
+
+    /**
+     * Get the average number of turns played per second since the counters were last reset.
+     *
+     * @return The turns per second, across all games.
+     */
+    double getTurnsPerSecond();
+
+    /**
+     * Get the number of cards left in the deck of the game started last.
+     *
+     * @return The deck size, or 0 if no game has started yet.
+     */
+    long getDeckSize();
+
+    /**
+     * Get the number of records waiting in the queues of all asynchronous loggers.
+     *
+     * @return The queue depth, 0 if no logger is asynchronous.
+     */
+    long getLoggerQueueDepth();
+
+    /**
+     * Get the number of records all asynchronous loggers have dropped because their queue was full.
+     *
+     * @return The number of dropped records.
+     */
+    long getLoggerDroppedRecords();
+
+    /** Resets every counter and histogram of the process, and restarts the turns per second. */
+    void resetCounters();
+}
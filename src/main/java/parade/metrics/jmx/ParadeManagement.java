@@ -0,0 +1,85 @@
+package parade.metrics.jmx;
+
+import parade.computer.ComputerEngine;
+import parade.computer.ProcessComputerEngine;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The ParadeManagement class registers the MBeans of the game with the platform MBean server, so
+ * that a running game or simulation can be watched and tuned from JConsole or VisualVM.
+ *
+ * <p>Nothing is registered until {@link #register()} is called, engines passed to {@link
+ * #registerEngine(ComputerEngine)} before that are ignored.
+ */
+public final class ParadeManagement {
+    private static final String DOMAIN = "parade";
+    private static final Map<String, EngineStats> engineStats = new ConcurrentHashMap<>();
+    private static volatile boolean registered;
+
+    private ParadeManagement() {}
+
+    /**
+     * Registers the {@code parade:type=GameStats} MBean, and enables the registration of engines.
+     * Calling it again does nothing.
+     *
+     * @throws IllegalStateException if the MBean cannot be registered.
+     */
+    public static synchronized void register() throws IllegalStateException {
+        if (registered) {
+            return;
+        }
+        registerMBean(new GameStats(), objectName("type=GameStats"));
+        registered = true;
+    }
+
+    /**
+     * Registers the {@code parade:type=Engine} MBean of the engine's name, if it is not registered
+     * yet, and makes the time limit of the engine changeable through it if the engine runs out of
+     * process.
+     *
+     * @param engine The engine of a computer player.
+     * @throws IllegalStateException if the MBean cannot be registered.
+     */
+    public static void registerEngine(ComputerEngine engine) throws IllegalStateException {
+        if (!registered) {
+            return;
+        }
+        EngineStats stats =
+                engineStats.computeIfAbsent(
+                        engine.getName(),
+                        name -> {
+                            EngineStats newStats = new EngineStats(name);
+                            registerMBean(
+                                    newStats,
+                                    objectName("type=Engine,name=" + ObjectName.quote(name)));
+                            return newStats;
+                        });
+        if (engine instanceof ProcessComputerEngine processEngine) {
+            stats.addProcessEngine(processEngine);
+        }
+    }
+
+    private static ObjectName objectName(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (JMException e) {
+            throw new IllegalStateException("Invalid MBean name: " + properties, e);
+        }
+    }
+
+    private static void registerMBean(Object mbean, ObjectName name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register MBean " + name, e);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package parade.metrics.trace;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The TraceRecorder class records the timeline of a game as spans, and writes it as a Chrome trace
+ * event file that can be opened in {@code chrome://tracing} or Perfetto, to see where the
+ * wall-clock time of a session goes, including the time spent sleeping through animations.
+ *
+ * <p>A span is a name, a category, its begin and end on {@link System#nanoTime()}, the thread that
+ * ran it and up to two arguments. Spans are written into a buffer allocated when tracing is
+ * enabled, so recording one allocates nothing beyond the boxing of its arguments. Once the buffer
+ * is full, later spans of the game are dropped and counted. Tracing is off unless enabled, and
+ * {@link #begin()} then returns -1 so the matching {@code end} does nothing.
+ *
+ * <p>Spans may be ended on any thread, also while the trace is being written, such as by pondering
+ * threads that are still searching. A span still being recorded at that moment is left out.
+ *
+ * <pre>{@code
+ * long traced = TraceRecorder.begin();
+ * List<Card> taken = parade.placeCard(card);
+ * TraceRecorder.end(TraceRecorder.Category.GAME, "placeCard", traced, "card", card);
+ * }</pre>
+ */
+public final class TraceRecorder {
+    private static final int ARGS_PER_SPAN = 2;
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private static final int PROCESS_ID = 1;
+    private static volatile TraceRecorder current;
+
+    private final int capacity;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long[] begins;
+    private final long[] ends;
+    private final long[] threadIds;
+    private final Category[] categories;
+    // Publishes each span, a name set with release semantics makes the rest of its slot visible to
+    // the thread that reads the name with acquire semantics
+    private final AtomicReferenceArray<String> names;
+    private final String[] argNames;
+    private final Object[] argValues;
+    private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+    private volatile long origin = System.nanoTime();
+
+    private TraceRecorder(int capacity) {
+        this.capacity = capacity;
+        begins = new long[capacity];
+        ends = new long[capacity];
+        threadIds = new long[capacity];
+        categories = new Category[capacity];
+        names = new AtomicReferenceArray<>(capacity);
+        argNames = new String[capacity * ARGS_PER_SPAN];
+        argValues = new Object[capacity * ARGS_PER_SPAN];
+    }
+
+    /**
+     * Turns tracing on for all threads, with a new buffer.
+     *
+     * @param capacity The number of spans the buffer holds per game.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public static void enable(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Trace buffer size must be positive: " + capacity);
+        }
+        current = new TraceRecorder(capacity);
+    }
+
+    /** Turns tracing off and releases the buffer, the spans not written yet are lost. */
+    public static void disable() {
+        current = null;
+    }
+
+    public static boolean isEnabled() {
+        return current != null;
+    }
+
+    /**
+     * Starts a span on the current thread.
+     *
+     * @return The current time, to pass to {@code end}, or -1 if tracing is off.
+     */
+    public static long begin() {
+        return current != null ? System.nanoTime() : -1;
+    }
+
+    /**
+     * Ends a span that began at the given time on the current thread.
+     *
+     * @param category The category of the span.
+     * @param name The name of the span.
+     * @param begin The value returned by {@link #begin()}, or any other {@link System#nanoTime()}.
+     */
+    public static void end(Category category, String name, long begin) {
+        end(category, name, begin, null, null, null, null);
+    }
+
+    /**
+     * Ends a span that began at the given time on the current thread, with an argument.
+     *
+     * @param category The category of the span.
+     * @param name The name of the span.
+     * @param begin The value returned by {@link #begin()}, or any other {@link System#nanoTime()}.
+     * @param argName The name of the argument.
+     * @param argValue The value of the argument, written as a number or a boolean if it is one and
+     *     as its string otherwise. It is only converted when the trace is written.
+     */
+    public static void end(
+            Category category, String name, long begin, String argName, Object argValue) {
+        end(category, name, begin, argName, argValue, null, null);
+    }
+
+    /**
+     * Ends a span that began at the given time on the current thread, with two arguments.
+     *
+     * @param category The category of the span.
+     * @param name The name of the span.
+     * @param begin The value returned by {@link #begin()}, or any other {@link System#nanoTime()}.
+     * @param argName1 The name of the first argument.
+     * @param argValue1 The value of the first argument.
+     * @param argName2 The name of the second argument.
+     * @param argValue2 The value of the second argument.
+     */
+    public static void end(
+            Category category,
+            String name,
+            long begin,
+            String argName1,
+            Object argValue1,
+            String argName2,
+            Object argValue2) {
+        TraceRecorder recorder = current;
+        if (begin < 0 || recorder == null) {
+            return;
+        }
+        recorder.record(
+                category, name, begin, System.nanoTime(), argName1, argValue1, argName2, argValue2);
+    }
+
+    /** Starts the timeline of a new game, forgetting the spans of the previous one. */
+    public static void startGame() {
+        TraceRecorder recorder = current;
+        if (recorder != null) {
+            recorder.clear();
+        }
+    }
+
+    /**
+     * Writes the spans of the current game as a Chrome trace event file, if tracing is on.
+     *
+     * @param file The file to write, replaced if it exists.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path file) throws IOException {
+        TraceRecorder recorder = current;
+        if (recorder == null) {
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            recorder.writeChromeTrace(writer);
+        }
+    }
+
+    private void record(
+            Category category,
+            String name,
+            long begin,
+            long end,
+            String argName1,
+            Object argValue1,
+            String argName2,
+            Object argValue2) {
+        int slot = next.getAndIncrement();
+        if (slot >= capacity) {
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        threadNames.putIfAbsent(thread.threadId(), thread.getName());
+        begins[slot] = begin;
+        ends[slot] = end;
+        threadIds[slot] = thread.threadId();
+        categories[slot] = category;
+        argNames[slot * ARGS_PER_SPAN] = argName1;
+        argValues[slot * ARGS_PER_SPAN] = argValue1;
+        argNames[slot * ARGS_PER_SPAN + 1] = argName2;
+        argValues[slot * ARGS_PER_SPAN + 1] = argValue2;
+        // The name is written last, a span without one is still being recorded and is skipped
+        names.setRelease(slot, name);
+    }
+
+    private void clear() {
+        int recorded = Math.min(next.get(), capacity);
+        for (int i = 0; i < recorded; i++) {
+            names.set(i, null);
+            categories[i] = null;
+        }
+        for (int i = 0; i < recorded * ARGS_PER_SPAN; i++) {
+            argNames[i] = null;
+            argValues[i] = null;
+        }
+        threadNames.clear();
+        origin = System.nanoTime();
+        next.set(0);
+    }
+
+    private void writeChromeTrace(Writer writer) throws IOException {
+        int recorded = Math.min(next.get(), capacity);
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        json.name("displayTimeUnit").value("ms");
+        json.name("otherData").beginObject();
+        json.name("spans").value(recorded);
+        json.name("droppedSpans").value(Math.max(next.get() - capacity, 0));
+        json.endObject();
+
+        json.name("traceEvents").beginArray();
+        json.beginObject();
+        json.name("name").value("process_name").name("ph").value("M");
+        json.name("pid").value(PROCESS_ID);
+        json.name("args").beginObject().name("name").value("Parade").endObject();
+        json.endObject();
+        for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+            json.beginObject();
+            json.name("name").value("thread_name").name("ph").value("M");
+            json.name("pid").value(PROCESS_ID).name("tid").value(thread.getKey());
+            json.name("args").beginObject().name("name").value(thread.getValue()).endObject();
+            json.endObject();
+        }
+        for (int i = 0; i < recorded; i++) {
+            String name = names.getAcquire(i);
+            if (name == null) {
+                continue;
+            }
+            json.beginObject();
+            json.name("name").value(name);
+            json.name("cat").value(categories[i].getName());
+            json.name("ph").value("X");
+            json.name("ts").value((begins[i] - origin) / NANOS_PER_MICRO);
+            json.name("dur").value((ends[i] - begins[i]) / NANOS_PER_MICRO);
+            json.name("pid").value(PROCESS_ID);
+            json.name("tid").value(threadIds[i]);
+            json.name("args").beginObject();
+            for (int j = i * ARGS_PER_SPAN; j < (i + 1) * ARGS_PER_SPAN; j++) {
+                if (argNames[j] != null) {
+                    writeValue(json.name(argNames[j]), argValues[j]);
+                }
+            }
+            json.endObject();
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    private static void writeValue(JsonWriter json, Object value) throws IOException {
+        if (value instanceof Number number) {
+            json.value(number);
+        } else if (value instanceof Boolean bool) {
+            json.value(bool);
+        } else {
+            json.value(String.valueOf(value));
+        }
+    }
+
+    /** The parts of a session that spans are grouped into. */
+    public enum Category {
+        /** The phases of a game, from the lobby to the scores, and every turn played. */
+        GAME("game"),
+        /** Computer engines deciding on a card to play or discard, and pondering. */
+        ENGINE("engine"),
+        /** Menus and displays, including waiting for the input of menus. */
+        RENDER("render"),
+        /** Pauses between frames and animations, and waiting for the player to skip them. */
+        SLEEP("sleep");
+
+        private final String name;
+
+        Category(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package parade.player.controller;
 import parade.card.Card;
 import parade.player.Player;
 
+import java.util.List;
+
 /**
  * The AbstractPlayerController abstract class defines the default behaviour that a player
  * controller should hold for the game engine.
@@ -14,6 +16,10 @@ public abstract class AbstractPlayerController {
         this.player = new Player(name);
     }
 
+    AbstractPlayerController(Player player) {
+        this.player = player;
+    }
+
     /**
      * Draw cards to the player's hand. This method is a delegate to the {@link
      * Player#addToHand(Card...)} method.
@@ -51,6 +57,37 @@ public abstract class AbstractPlayerController {
 
     public abstract Card discardCard(PlayCardData playCardData);
 
+    /**
+     * Notifies the controller that a player, which can be any player in the game including this
+     * one, has played a card into the parade.
+     *
+     * <p>The default implementation does nothing.
+     *
+     * @param playerController The controller of the player that played the card.
+     * @param paradeLength The length of the parade before the card was placed.
+     * @param playedCard The card played.
+     * @param takenCards The cards the player took from the parade.
+     */
+    public void onCardPlayed(
+            AbstractPlayerController playerController,
+            int paradeLength,
+            Card playedCard,
+            List<Card> takenCards) {}
+
+    /**
+     * Notifies the controller that a turn has been completed by a player, which can be any player
+     * in the game including this one. By the time this is called, the played card has been placed
+     * into the parade, the cards taken from the parade are on that player's board, and the player
+     * has drawn their replacement card, if any.
+     *
+     * <p>The default implementation does nothing. Controllers that want to make use of the time
+     * spent on other players' turns, such as {@link ComputerController}, can override this.
+     *
+     * @param lastController The controller of the player that has just completed their turn.
+     * @param playCardData The game state after the turn.
+     */
+    public void onTurnEnded(AbstractPlayerController lastController, PlayCardData playCardData) {}
+
     /**
      * The player controller holds a reference to the underlying {@link Player} object, which
      * represents the player in the game.
@@ -1,7 +1,26 @@
 package parade.player.controller;
 
 import parade.card.Card;
+import parade.card.Colour;
+import parade.card.Parade;
 import parade.computer.ComputerEngine;
+import parade.computer.OpponentModel;
+import parade.computer.SearchStats;
+import parade.computer.SearchTelemetry;
+import parade.logger.LoggerProvider;
+import parade.metrics.AllocationTracker;
+import parade.metrics.Counter;
+import parade.metrics.Histogram;
+import parade.metrics.MetricsRegistry;
+import parade.metrics.jfr.EngineDecisionEvent;
+import parade.metrics.jmx.ParadeManagement;
+import parade.metrics.trace.TraceRecorder;
+import parade.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The ComputerController class is a representation of a computer player in the game. It relies on
@@ -11,9 +30,34 @@ import parade.computer.ComputerEngine;
  * <p>When prompted to play a card, the computer player will use its attached IComputerEngine
  * internal logic to decide which card to play. The controller will then send the chosen card back
  * to the game server.
+ *
+ * <p>When pondering is enabled, the controller keeps its engine busy on a background virtual thread
+ * while the other players are taking their turns. It precomputes the card it would play for every
+ * position it could be facing on its next turn, so that when its turn arrives it can simply reuse
+ * the result if the actual position matches one of them. Each position is searched with a copy of
+ * the opponent model that has the reply leading to it recorded, so a pondered move is the move the
+ * engine would have chosen on its turn.
  */
 public class ComputerController extends AbstractPlayerController {
+    // Upper bound of positions to ponder on per turn, 5 cards in hand * 60 unseen cards is the
+    // most we will ever need, but keep a cap in case of unexpected states.
+    private static final int MAX_PONDER_POSITIONS = 512;
+    private static final int CARDS_PER_COLOUR = 11;
+    // Decisions the game waited for, speculative searches while pondering are timed separately
+    private static final Histogram PROCESS_TIME =
+            MetricsRegistry.get().histogram("computer.process");
+    private static final Histogram PONDER_TIME = MetricsRegistry.get().histogram("computer.ponder");
+    private static final Counter PONDER_HITS =
+            MetricsRegistry.get().counter("computer.ponder_hits");
+
     private final ComputerEngine computerEngine;
+    private final Histogram engineProcessTime;
+    private final Histogram enginePonderTime;
+    private final OpponentModel opponentModel = new OpponentModel();
+    private final boolean ponderEnabled;
+    private final Map<String, Card> ponderedMoves = new ConcurrentHashMap<>();
+    private Thread ponderThread;
+    private boolean ponderingCurrentPosition;
 
     /**
      * Constructs a Computer player with a given name and the computer engine.
@@ -22,25 +66,376 @@ public class ComputerController extends AbstractPlayerController {
      * @param computerEngine The computer engine to attach for the controller.
      */
     public ComputerController(String name, ComputerEngine computerEngine) {
+        this(name, computerEngine, false);
+    }
+
+    /**
+     * Constructs a Computer player with a given name and the computer engine.
+     *
+     * @param name The name of the AI player.
+     * @param computerEngine The computer engine to attach for the controller.
+     * @param ponderEnabled Whether the computer should think ahead during other players' turns.
+     */
+    public ComputerController(String name, ComputerEngine computerEngine, boolean ponderEnabled) {
         super(String.format("%s [%s]", name, computerEngine.getName()));
         this.computerEngine = computerEngine;
+        this.ponderEnabled = ponderEnabled;
+        this.engineProcessTime =
+                MetricsRegistry.get().histogram("computer.process." + computerEngine.getName());
+        this.enginePonderTime =
+                MetricsRegistry.get().histogram("computer.ponder." + computerEngine.getName());
+        computerEngine.setOpponentModel(opponentModel);
+        ParadeManagement.registerEngine(computerEngine);
     }
 
     @Override
     public Card playCard(PlayCardData playCardData) {
-        return computerEngine.process(
-                player,
-                playCardData);
+        long start = System.nanoTime();
+        long traced = TraceRecorder.begin();
+        EngineDecisionEvent decisionEvent = new EngineDecisionEvent();
+        decisionEvent.begin();
+        if (ponderingCurrentPosition) {
+            // The pondering thread is already solving this exact position, waiting on it is never
+            // slower than starting the same search all over again
+            awaitPondering();
+        }
+        stopPondering();
+        Card card =
+                findInHand(ponderedMoves.get(positionKey(player, playCardData, opponentModel)));
+        SearchStats searchStats = null;
+        if (card == null) {
+            card = searchMove(player, playCardData, opponentModel, false);
+            searchStats = computerEngine.getLastSearchStats();
+        } else {
+            PONDER_HITS.increment();
+            SearchTelemetry.recordCacheHit(computerEngine.getName());
+            decisionEvent.pondered = true;
+        }
+        recordDecisionTime(start);
+        decisionEvent.end();
+        if (decisionEvent.shouldCommit()) {
+            decisionEvent.engine = computerEngine.getName();
+            decisionEvent.positions =
+                    searchStats != null ? searchStats.positions() : decisionEvent.pondered ? 0 : -1;
+            decisionEvent.card = card.toString();
+            decisionEvent.commit();
+        }
+        TraceRecorder.end(
+                TraceRecorder.Category.ENGINE,
+                "decision",
+                traced,
+                "engine",
+                computerEngine.getName(),
+                "pondered",
+                decisionEvent.pondered);
+        ponderedMoves.clear();
+        player.removeFromHand(card);
+        return card;
     }
 
     @Override
     public Card discardCard(PlayCardData playCardData) {
-        return computerEngine.discardCard(player, playCardData);
+        long start = System.nanoTime();
+        stopPondering();
+        long traced = TraceRecorder.begin();
+        long allocated = AllocationTracker.begin();
+        Card card = computerEngine.discardCard(player, playCardData);
+        AllocationTracker.end(AllocationTracker.Subsystem.ENGINE, allocated);
+        recordDecisionTime(start);
+        TraceRecorder.end(
+                TraceRecorder.Category.ENGINE,
+                "discard",
+                traced,
+                "engine",
+                computerEngine.getName());
+        player.removeFromHand(card);
+        return card;
     }
 
+    /**
+     * Feeds the cards played by the other players into the opponent model of the engine.
+     *
+     * @param playerController The controller of the player that played the card.
+     * @param paradeLength The length of the parade before the card was placed.
+     * @param playedCard The card played.
+     * @param takenCards The cards the player took from the parade.
+     */
+    @Override
+    public void onCardPlayed(
+            AbstractPlayerController playerController,
+            int paradeLength,
+            Card playedCard,
+            List<Card> takenCards) {
+        if (playerController != this) {
+            opponentModel.recordPlay(
+                    playerController.getPlayer().getName(),
+                    paradeLength,
+                    playedCard,
+                    takenCards.size());
+        }
+    }
+
+    /**
+     * Starts pondering when this computer is either the next player to move, or the player right
+     * after the next one. In the first case the position is already known and is solved directly,
+     * in the second case every reply the next player could make (and every card they could draw
+     * after it) is solved instead.
+     *
+     * @param lastController The controller of the player that has just completed their turn.
+     * @param playCardData The game state after the turn.
+     */
+    @Override
+    public void onTurnEnded(AbstractPlayerController lastController, PlayCardData playCardData) {
+        if (!ponderEnabled) {
+            return;
+        }
+        List<AbstractPlayerController> seats = playCardData.getOtherPlayers();
+        int lastSeat = seats.indexOf(lastController);
+        int selfSeat = seats.indexOf(this);
+        if (lastSeat < 0 || selfSeat < 0) {
+            return;
+        }
+
+        int nextSeat = (lastSeat + 1) % seats.size();
+        if (nextSeat == selfSeat) {
+            startPondering(
+                    List.of(
+                            new PonderedPosition(
+                                    SnapshotController.snapshot(playCardData),
+                                    opponentModel.copy())),
+                    selfSeat);
+            ponderingCurrentPosition = true;
+        } else if ((nextSeat + 1) % seats.size() == selfSeat) {
+            startPondering(predictPositions(playCardData, nextSeat), selfSeat);
+        }
+    }
+
+    /**
+     * Lists the positions that can arise after the player at the given seat takes their turn. The
+     * player may play any card in their hand, and then either draw any card that this computer has
+     * not seen yet or draw nothing at all when the game enters its final round. Every position
+     * comes with a copy of the opponent model that has the card played recorded, as {@link
+     * #onCardPlayed} will have recorded it by the time the position arises.
+     *
+     * @param playCardData The current game state.
+     * @param seat The seat of the player that is about to take their turn.
+     * @return The snapshots of every position that could follow.
+     */
+    private List<PonderedPosition> predictPositions(PlayCardData playCardData, int seat) {
+        List<Card> unseenCards = playCardData.getDeckSize() > 0 ? unseenCards(playCardData) : null;
+        List<PonderedPosition> positions = new ArrayList<>();
+        Player mover = playCardData.getOtherPlayers().get(seat).getPlayer();
+        int paradeLength = playCardData.getParade().getCards().size();
+        for (Card playedCard : mover.getHand()) {
+            PlayCardData afterPlay = SnapshotController.snapshot(playCardData);
+            Player movedPlayer = afterPlay.getOtherPlayers().get(seat).getPlayer();
+            movedPlayer.removeFromHand(playedCard);
+            List<Card> taken = afterPlay.getParade().placeCard(playedCard);
+            movedPlayer.addToBoard(taken.toArray(Card[]::new));
+            OpponentModel modelAfterPlay = opponentModel.copy();
+            modelAfterPlay.recordPlay(mover.getName(), paradeLength, playedCard, taken.size());
+            positions.add(new PonderedPosition(afterPlay, modelAfterPlay));
+
+            if (unseenCards == null) {
+                continue;
+            }
+            for (Card drawnCard : unseenCards) {
+                if (positions.size() >= MAX_PONDER_POSITIONS) {
+                    return positions;
+                }
+                List<AbstractPlayerController> controllers = new ArrayList<>();
+                for (AbstractPlayerController controller : afterPlay.getOtherPlayers()) {
+                    controllers.add(new SnapshotController(controller.getPlayer()));
+                }
+                controllers.get(seat).draw(drawnCard);
+                positions.add(
+                        new PonderedPosition(
+                                new PlayCardData(
+                                        controllers,
+                                        new Parade(afterPlay.getParade()),
+                                        afterPlay.getDeckSize() - 1),
+                                modelAfterPlay));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Builds every card that is neither in the parade nor in any player's hand or board, which are
+     * the cards that could still be drawn from the deck.
+     */
+    private List<Card> unseenCards(PlayCardData playCardData) {
+        boolean[] seen = new boolean[Colour.values().length * CARDS_PER_COLOUR];
+        for (Card card : playCardData.getParade().getCards()) {
+            seen[cardIndex(card)] = true;
+        }
+        for (AbstractPlayerController controller : playCardData.getOtherPlayers()) {
+            for (Card card : controller.getPlayer().getHand()) {
+                seen[cardIndex(card)] = true;
+            }
+            for (Card card : controller.getPlayer().getBoard()) {
+                seen[cardIndex(card)] = true;
+            }
+        }
+
+        List<Card> unseen = new ArrayList<>();
+        for (Colour colour : Colour.values()) {
+            for (int number = 0; number < CARDS_PER_COLOUR; number++) {
+                if (!seen[colour.ordinal() * CARDS_PER_COLOUR + number]) {
+                    unseen.add(new Card(number, colour));
+                }
+            }
+        }
+        return unseen;
+    }
+
+    private void startPondering(List<PonderedPosition> positions, int selfSeat) {
+        stopPondering();
+        ponderedMoves.clear();
+        ponderThread =
+                Thread.ofVirtual()
+                        .name(player.getName() + "-ponder")
+                        .start(() -> ponder(positions, selfSeat));
+    }
+
+    private void ponder(List<PonderedPosition> positions, int selfSeat) {
+        long traced = TraceRecorder.begin();
+        try {
+            for (PonderedPosition pondered : positions) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                PlayCardData position = pondered.position();
+                Player self = position.getOtherPlayers().get(selfSeat).getPlayer();
+                long start = System.nanoTime();
+                Card card = searchMove(self, position, pondered.model(), true);
+                // An interrupted search is cut short and would only skew the ponder times
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                long nanos = System.nanoTime() - start;
+                PONDER_TIME.record(nanos);
+                enginePonderTime.record(nanos);
+                ponderedMoves.put(positionKey(self, position, pondered.model()), card);
+                // Virtual threads are not preempted, give other computers a chance to ponder too
+                Thread.yield();
+            }
+        } catch (RuntimeException e) {
+            LoggerProvider.getInstance().log(player.getName() + " stopped pondering", e);
+        } finally {
+            TraceRecorder.end(
+                    TraceRecorder.Category.ENGINE,
+                    "ponder",
+                    traced,
+                    "positions",
+                    positions.size(),
+                    "solved",
+                    ponderedMoves.size());
+        }
+    }
+
+    private Card searchMove(
+            Player self, PlayCardData playCardData, OpponentModel model, boolean pondering) {
+        long allocated = AllocationTracker.begin();
+        try {
+            Card card = computerEngine.process(self, playCardData, model);
+            if (!pondering) {
+                SearchTelemetry.record(
+                        computerEngine.getName(), computerEngine.getLastSearchStats());
+            } else if (!Thread.currentThread().isInterrupted()) {
+                SearchTelemetry.recordPondering(
+                        computerEngine.getName(), computerEngine.getLastSearchStats());
+            }
+            return card;
+        } finally {
+            AllocationTracker.end(AllocationTracker.Subsystem.ENGINE, allocated);
+        }
+    }
+
+    /**
+     * Records the time of a decision the game waited for, from the moment it asked for a card to
+     * the moment it got one, including any wait on pondering.
+     */
+    private void recordDecisionTime(long start) {
+        long nanos = System.nanoTime() - start;
+        PROCESS_TIME.record(nanos);
+        engineProcessTime.record(nanos);
+    }
+
+    private void awaitPondering() {
+        try {
+            ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cancels the search of the pondering thread and waits for it to return, so that it neither
+     * competes with the search of the current turn nor writes any more pondered moves. Engines
+     * check for the interrupt between candidates, so the wait is at most the evaluation of one.
+     */
+    private void stopPondering() {
+        if (ponderThread != null) {
+            ponderThread.interrupt();
+            awaitPondering();
+            ponderThread = null;
+        }
+        ponderingCurrentPosition = false;
+    }
+
+    /**
+     * Finds the card in the actual hand with the same number and colour as the given card. Pondered
+     * positions may contain copies of the cards, so the match cannot rely on identity.
+     */
+    private Card findInHand(Card card) {
+        if (card == null) {
+            return null;
+        }
+        for (Card handCard : player.getHand()) {
+            if (handCard.getNumber() == card.getNumber()
+                    && handCard.getColour() == card.getColour()) {
+                return handCard;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Encodes everything the engine can see into a string, two positions with the same key are
+     * guaranteed to produce the same decision from an engine following the {@link ComputerEngine}
+     * contract. The model is only ever a copy of the model of this controller with the plays since
+     * recorded, so the number of plays it recorded tells it apart.
+     */
+    private static String positionKey(Player self, PlayCardData playCardData, OpponentModel model) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(self.getName()).append('|').append(playCardData.getDeckSize()).append('|');
+        sb.append(model.getRecordedPlays()).append('|');
+        appendCards(sb, playCardData.getParade().getCards());
+        for (AbstractPlayerController controller : playCardData.getOtherPlayers()) {
+            sb.append('|');
+            appendCards(sb, controller.getPlayer().getHand());
+            sb.append('/');
+            appendCards(sb, controller.getPlayer().getBoard());
+        }
+        return sb.toString();
+    }
+
+    private static void appendCards(StringBuilder sb, List<Card> cards) {
+        for (Card card : cards) {
+            sb.append((char) ('0' + cardIndex(card)));
+        }
+    }
+
+    private static int cardIndex(Card card) {
+        return card.getColour().ordinal() * CARDS_PER_COLOUR + card.getNumber();
+    }
+
+    /** A position to ponder on, with the opponent model the game will have when it arises. */
+    private record PonderedPosition(PlayCardData position, OpponentModel model) {}
+
     @Override
     public String toString() {
         return "ComputerController [player=" + player + ", computerEngine=" + computerEngine + "]";
     }
-
 }
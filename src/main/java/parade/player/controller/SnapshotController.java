@@ -0,0 +1,54 @@
+package parade.player.controller;
+
+import parade.card.Card;
+import parade.card.Parade;
+import parade.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SnapshotController class is a frozen copy of another controller's player. It is used to hand
+ * a game state to code running off the game thread, such as a pondering computer engine, without
+ * exposing the live hands and boards that the game thread keeps modifying.
+ *
+ * <p>A snapshot can never take a turn, so {@link #playCard(PlayCardData)} and {@link
+ * #discardCard(PlayCardData)} are not supported.
+ */
+public final class SnapshotController extends AbstractPlayerController {
+    /**
+     * Constructs a snapshot of the given player. The player's hand and board are copied, the cards
+     * themselves are shared as they are immutable.
+     *
+     * @param player The player to take a snapshot of.
+     */
+    public SnapshotController(Player player) {
+        super(new Player(player));
+    }
+
+    /**
+     * Takes a snapshot of the entire game state, including every player and the parade.
+     *
+     * @param playCardData The game state to copy.
+     * @return A copy of the game state that is safe to read from another thread.
+     */
+    public static PlayCardData snapshot(PlayCardData playCardData) {
+        List<AbstractPlayerController> controllers =
+                new ArrayList<>(playCardData.getOtherPlayers().size());
+        for (AbstractPlayerController controller : playCardData.getOtherPlayers()) {
+            controllers.add(new SnapshotController(controller.getPlayer()));
+        }
+        return new PlayCardData(
+                controllers, new Parade(playCardData.getParade()), playCardData.getDeckSize());
+    }
+
+    @Override
+    public Card playCard(PlayCardData playCardData) {
+        throw new UnsupportedOperationException("A snapshot cannot play a card");
+    }
+
+    @Override
+    public Card discardCard(PlayCardData playCardData) {
+        throw new UnsupportedOperationException("A snapshot cannot discard a card");
+    }
+}
@@ -84,6 +84,19 @@ public class Setting {
         return properties.getProperty(key.getKey());
     }
 
+    /**
+     * Get the value of a property that is qualified by a suffix, such as {@code
+     * logger.level.console} for the key {@code logger.level} and the qualifier {@code console}. The
+     * method returns null if the property is not found.
+     *
+     * @param key the key of the property
+     * @param qualifier the suffix appended to the key after a dot
+     * @return the value of the property
+     */
+    public String get(SettingKey key, String qualifier) {
+        return properties.getProperty(key.getKey() + "." + qualifier);
+    }
+
     /**
      * Get the integer value of the property.
      *
@@ -95,6 +108,22 @@ public class Setting {
         return Integer.parseInt(properties.getProperty(key.getKey()));
     }
 
+    /**
+     * Get the integer value of the property, or the default value if the property is not set.
+     *
+     * @param key the key of the property
+     * @param defaultValue the value to return if the property is not set
+     * @return the integer value of the property
+     * @throws NumberFormatException if the value is not able to parse into an integer
+     */
+    public int getInt(SettingKey key, int defaultValue) throws NumberFormatException {
+        String value = properties.getProperty(key.getKey());
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Integer.parseInt(value.trim());
+    }
+
     /**
      * Get the boolean value of the property. If the value is not a boolean, it will default to
      * false.
@@ -4,7 +4,36 @@ public enum SettingKey {
     LOGGER_ENABLED("logger.enabled", false),
     LOGGER_TYPES("logger.types", false),
     LOGGER_FILE("logger.file", false),
-    CLIENT_MENU("client.menu", false);
+    LOGGER_FILE_MAX_SIZE_MB("logger.file.max_size_mb", false),
+    LOGGER_FILE_ROLL_MINUTES("logger.file.roll_minutes", false),
+    LOGGER_FILE_RETENTION("logger.file.retention", false),
+    LOGGER_FILE_COMPRESS("logger.file.compress", false),
+    LOGGER_BINARY_FILE("logger.binary_file", false),
+    LOGGER_MMAP_SEGMENT_MB("logger.mmap.segment_mb", false),
+    LOGGER_MMAP_SYNC_MS("logger.mmap.sync_ms", false),
+    LOGGER_CALLER("logger.caller", false),
+    LOGGER_LEVEL("logger.level", false),
+    LOGGER_ASYNC_BUFFER_SIZE("logger.async.buffer_size", false),
+    LOGGER_ASYNC_OVERFLOW("logger.async.overflow", false),
+    LOGGER_ASYNC_SAMPLE_RATE("logger.async.sample_rate", false),
+    LOGGER_PARALLEL("logger.parallel", false),
+    LOGGER_SAMPLE_GAMES("logger.sample.games", false),
+    LOGGER_SAMPLE_RATE_PER_SECOND("logger.sample.rate_per_second", false),
+    LOGGER_SAMPLE_BURST("logger.sample.burst", false),
+    METRICS_OUTPUT("metrics.output", false),
+    METRICS_JMX("metrics.jmx", false),
+    METRICS_ALLOCATIONS("metrics.allocations", false),
+    METRICS_TRACE("metrics.trace", false),
+    METRICS_TRACE_BUFFER_SIZE("metrics.trace.buffer_size", false),
+    LOGGER_GAME_DIR("logger.game.dir", false),
+    LOGGER_GAME_WRITERS("logger.game.writers", false),
+    LOGGER_GAME_OPEN_FILES("logger.game.open_files", false),
+    CLIENT_MENU("client.menu", false),
+    COMPUTER_PONDER("computer.ponder", false),
+    COMPUTER_PROCESS("computer.process", false),
+    COMPUTER_PROCESS_POOL_SIZE("computer.process.pool_size", false),
+    COMPUTER_PROCESS_TIMEOUT_MS("computer.process.timeout_ms", false),
+    COMPUTER_PROCESS_JVM_ARGS("computer.process.jvm_args", false);
 
     private final String key;
     private final boolean required;
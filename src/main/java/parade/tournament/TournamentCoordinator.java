@@ -0,0 +1,152 @@
+package parade.tournament;
+
+import parade.core.SimulationResult;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The TournamentCoordinator class runs a tournament across several local worker processes. The
+ * tournament is split into contiguous seed ranges, one per worker, and each worker is a separate
+ * JVM running {@link TournamentWorker} from the same class path. The binary results streamed back
+ * by the workers are merged into a single set of standings.
+ *
+ * <p>Since the workers seed the engines that make random choices from the seed of each game, every
+ * game is identified by its seed and the engines alone, so a seed range can be handed to any worker
+ * on any machine and the merged standings stay the same.
+ *
+ * <p>Usage: {@code java -cp parade-game.jar parade.tournament.TournamentCoordinator --engines
+ * parade.computer.HardComputerEngine,parade.computer.EasyComputerEngine [--games 10000] [--workers
+ * 4] [--seed 0] [--jvm-args "-Xmx256m"]}
+ */
+public class TournamentCoordinator {
+    private final List<String> engines;
+    private final long firstSeed;
+    private final long games;
+    private final int workers;
+    private final List<String> jvmArgs;
+
+    public TournamentCoordinator(
+            List<String> engines, long firstSeed, long games, int workers, List<String> jvmArgs) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        this.engines = List.copyOf(engines);
+        this.firstSeed = firstSeed;
+        this.games = games;
+        this.workers = workers;
+        this.jvmArgs = List.copyOf(jvmArgs);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> engines = null;
+        long firstSeed = 0;
+        long games = 10_000;
+        int workers = Runtime.getRuntime().availableProcessors();
+        List<String> jvmArgs = List.of();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--engines" -> engines = Arrays.asList(args[i + 1].split(","));
+                case "--seed" -> firstSeed = Long.parseLong(args[i + 1]);
+                case "--games" -> games = Long.parseLong(args[i + 1]);
+                case "--workers" -> workers = Integer.parseInt(args[i + 1]);
+                case "--jvm-args" -> jvmArgs = Arrays.asList(args[i + 1].trim().split("\\s+"));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (engines == null) {
+            System.err.println(
+                    "Usage: TournamentCoordinator --engines <engine class name>,... [--games n]"
+                            + " [--workers n] [--seed n] [--jvm-args args]");
+            System.exit(2);
+        }
+
+        long startNanos = System.nanoTime();
+        TournamentStandings standings =
+                new TournamentCoordinator(engines, firstSeed, games, workers, jvmArgs).run();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.print(standings);
+        System.out.printf(
+                "%.2fs elapsed, %.1f games/s%n", seconds, standings.getGames() / seconds);
+    }
+
+    /**
+     * Runs the tournament and waits for all workers to complete.
+     *
+     * @return The merged standings of every worker.
+     * @throws IOException if a worker cannot be launched or fails.
+     * @throws InterruptedException if interrupted while waiting for the workers.
+     */
+    public TournamentStandings run() throws IOException, InterruptedException {
+        List<Process> processes = new ArrayList<>();
+        List<Future<TournamentStandings>> results = new ArrayList<>();
+        try (ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor()) {
+            long seed = firstSeed;
+            for (int i = 0; i < workers; i++) {
+                long count = games / workers + (i < games % workers ? 1 : 0);
+                if (count == 0) {
+                    continue;
+                }
+                Process process = launch(seed, count);
+                processes.add(process);
+                results.add(readers.submit(() -> readResults(process)));
+                seed += count;
+            }
+
+            TournamentStandings standings = new TournamentStandings(engines);
+            for (Future<TournamentStandings> result : results) {
+                standings.merge(result.get());
+            }
+            for (Process process : processes) {
+                if (process.waitFor() != 0) {
+                    throw new IOException("Worker exited with code " + process.exitValue());
+                }
+            }
+            return standings;
+        } catch (ExecutionException e) {
+            throw new IOException("Tournament worker failed", e.getCause());
+        } finally {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private Process launch(long seed, long count) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(TournamentWorker.class.getName());
+        command.add(String.valueOf(seed));
+        command.add(String.valueOf(count));
+        command.addAll(engines);
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private TournamentStandings readResults(Process process) throws IOException {
+        TournamentStandings standings = new TournamentStandings(engines);
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(process.getInputStream(), 1 << 16))) {
+            int seats = TournamentResultCodec.readHeader(in);
+            if (seats != engines.size()) {
+                throw new IOException("Worker reported " + seats + " seats");
+            }
+            SimulationResult result;
+            while ((result = TournamentResultCodec.readResult(in, seats)) != null) {
+                standings.add(result);
+            }
+        }
+        return standings;
+    }
+}
@@ -0,0 +1,97 @@
+package parade.tournament;
+
+import parade.core.SimulationResult;
+
+import java.io.*;
+
+/**
+ * The TournamentResultCodec class encodes the compact binary stream a tournament worker sends back
+ * to its coordinator.
+ *
+ * <p>The stream starts with a header of the magic number, the format version and the number of
+ * seats. It is followed by tagged records, where a game record holds the seed, the score of each
+ * seat, the winner mask and the number of turns. The stream is closed by an end record, or by an
+ * error record carrying the message of the failure.
+ */
+public final class TournamentResultCodec {
+    private static final int MAGIC = 0x50524431; // "PRD1"
+    private static final int VERSION = 1;
+
+    private static final byte TAG_GAME = 1;
+    private static final byte TAG_END = 2;
+    private static final byte TAG_ERROR = 3;
+
+    private TournamentResultCodec() {}
+
+    public static void writeHeader(DataOutput out, int seats) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(seats);
+    }
+
+    public static void writeResult(DataOutput out, SimulationResult result) throws IOException {
+        out.writeByte(TAG_GAME);
+        out.writeLong(result.seed());
+        for (int score : result.scores()) {
+            out.writeShort(score);
+        }
+        out.writeByte(result.winnerMask());
+        out.writeShort(result.turns());
+    }
+
+    public static void writeEnd(DataOutput out) throws IOException {
+        out.writeByte(TAG_END);
+    }
+
+    public static void writeError(DataOutput out, String message) throws IOException {
+        out.writeByte(TAG_ERROR);
+        out.writeUTF(message == null ? "Unknown error" : message);
+    }
+
+    /**
+     * Reads the header of the stream.
+     *
+     * @param in The stream to read from.
+     * @return The number of seats of every record in the stream.
+     * @throws IOException if the stream is not a tournament result stream.
+     */
+    public static int readHeader(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a tournament result stream");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported tournament result version: " + version);
+        }
+        return in.readUnsignedByte();
+    }
+
+    /**
+     * Reads the next game record in the stream.
+     *
+     * @param in The stream to read from.
+     * @param seats The number of seats, as read from the header.
+     * @return The game result, or null when the end of the stream has been reached.
+     * @throws IOException if the stream is corrupted or carries an error from the worker.
+     */
+    public static SimulationResult readResult(DataInput in, int seats) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_GAME -> {
+                long seed = in.readLong();
+                int[] scores = new int[seats];
+                for (int i = 0; i < seats; i++) {
+                    scores[i] = in.readShort();
+                }
+                int winnerMask = in.readUnsignedByte();
+                int turns = in.readUnsignedShort();
+                return new SimulationResult(seed, scores, winnerMask, turns);
+            }
+            case TAG_END -> {
+                return null;
+            }
+            case TAG_ERROR -> throw new IOException("Worker failed: " + in.readUTF());
+            default -> throw new IOException("Unknown record tag: " + tag);
+        }
+    }
+}
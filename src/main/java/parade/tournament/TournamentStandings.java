@@ -0,0 +1,114 @@
+package parade.tournament;
+
+import parade.core.SimulationResult;
+
+import java.util.List;
+
+/**
+ * The TournamentStandings class accumulates the results of the games played in a tournament, per
+ * seat. Standings from different workers can be merged as long as they were played with the same
+ * seats.
+ */
+public class TournamentStandings {
+    private final List<String> engines;
+    private final long[] wins;
+    private final long[] ties;
+    private final long[] totalScores;
+    private long games;
+    private long turns;
+
+    public TournamentStandings(List<String> engines) {
+        this.engines = List.copyOf(engines);
+        this.wins = new long[engines.size()];
+        this.ties = new long[engines.size()];
+        this.totalScores = new long[engines.size()];
+    }
+
+    /**
+     * Adds the result of a single game.
+     *
+     * @param result The result to add.
+     * @throws IllegalArgumentException if the result has a different number of seats.
+     */
+    public void add(SimulationResult result) {
+        if (result.scores().length != engines.size()) {
+            throw new IllegalArgumentException("Result does not match the tournament seats");
+        }
+        boolean tie = result.isTie();
+        for (int seat = 0; seat < engines.size(); seat++) {
+            totalScores[seat] += result.scores()[seat];
+            if (result.isWinner(seat)) {
+                if (tie) {
+                    ties[seat]++;
+                } else {
+                    wins[seat]++;
+                }
+            }
+        }
+        games++;
+        turns += result.turns();
+    }
+
+    /**
+     * Merges the standings of another part of the same tournament into this one.
+     *
+     * @param other The standings to merge.
+     * @throws IllegalArgumentException if the other standings have different seats.
+     */
+    public void merge(TournamentStandings other) {
+        if (!engines.equals(other.engines)) {
+            throw new IllegalArgumentException("Standings do not match the tournament seats");
+        }
+        for (int seat = 0; seat < engines.size(); seat++) {
+            wins[seat] += other.wins[seat];
+            ties[seat] += other.ties[seat];
+            totalScores[seat] += other.totalScores[seat];
+        }
+        games += other.games;
+        turns += other.turns;
+    }
+
+    public List<String> getEngines() {
+        return engines;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTurns() {
+        return turns;
+    }
+
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    public long getTies(int seat) {
+        return ties[seat];
+    }
+
+    public double getAverageScore(int seat) {
+        return games == 0 ? 0 : (double) totalScores[seat] / games;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games, %d turns%n", games, turns));
+        sb.append(
+                String.format(
+                        "%-4s %-40s %10s %10s %10s%n", "Seat", "Engine", "Wins", "Ties", "Avg"));
+        for (int seat = 0; seat < engines.size(); seat++) {
+            sb.append(
+                    String.format(
+                            "%-4d %-40s %10d %10d %10.2f%n",
+                            seat,
+                            engines.get(seat),
+                            wins[seat],
+                            ties[seat],
+                            getAverageScore(seat)));
+        }
+        return sb.toString();
+    }
+}
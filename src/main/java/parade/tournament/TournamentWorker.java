@@ -0,0 +1,60 @@
+package parade.tournament;
+
+import parade.computer.ComputerEngine;
+import parade.computer.ComputerEngines;
+import parade.core.SimulatedGameEngine;
+import parade.logger.LoggerProvider;
+import parade.logger.impl.NopLogger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The TournamentWorker class is the entry point of a tournament worker process. It plays a range
+ * of seeded games and streams the results to stdout in the {@link TournamentResultCodec} format.
+ *
+ * <p>Usage: {@code java -cp parade-game.jar parade.tournament.TournamentWorker <first seed> <game
+ * count> <engine class name>...}
+ *
+ * <p>The engines are created anew for every game, and engines that make random choices are seeded
+ * from the seed of the game and their seat, so that a game replays the same wherever it is played.
+ */
+public class TournamentWorker {
+    private static final int MAX_PLAYERS = 6;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println(
+                    "Usage: TournamentWorker <first seed> <game count> <engine class name>...");
+            System.exit(2);
+        }
+        LoggerProvider.setInstance(new NopLogger());
+
+        long firstSeed = Long.parseLong(args[0]);
+        long games = Long.parseLong(args[1]);
+        List<String> engineNames = Arrays.asList(args).subList(2, args.length);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out, 1 << 16));
+        TournamentResultCodec.writeHeader(out, engineNames.size());
+        try {
+            for (long seed = firstSeed; seed < firstSeed + games; seed++) {
+                List<ComputerEngine> engines = new ArrayList<>(engineNames.size());
+                for (int seat = 0; seat < engineNames.size(); seat++) {
+                    engines.add(
+                            ComputerEngines.load(engineNames.get(seat), seed * MAX_PLAYERS + seat));
+                }
+                SimulatedGameEngine game = new SimulatedGameEngine(seed, engines);
+                game.start();
+                TournamentResultCodec.writeResult(out, game.getResult());
+            }
+            TournamentResultCodec.writeEnd(out);
+        } catch (RuntimeException e) {
+            TournamentResultCodec.writeError(out, e.toString());
+        }
+        out.flush();
+    }
+}